@@ -0,0 +1,23 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs JMH with the GC profiler enabled (unless profilers are specified explicitly),
+ * so that allocation rates are reported along with the timings.
+ * All standard JMH command line options are supported, e.g. a benchmark name regexp.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[options.size()]));
+    }
+}
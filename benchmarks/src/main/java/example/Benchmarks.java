@@ -0,0 +1,82 @@
+package example;
+
+import java.util.List;
+
+/**
+ * Shared fixtures for benchmarks
+ */
+class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static List<Face> faces(String set) {
+        switch (set) {
+            case "blue": {
+                return Main.blueFaces();
+            }
+            case "red": {
+                return Main.redFaces();
+            }
+            case "purple": {
+                return Main.purpleFaces();
+            }
+            case "golden": {
+                return Main.goldenFaces();
+            }
+            default: {
+                throw new IllegalArgumentException("Unknown set: " + set);
+            }
+        }
+    }
+
+    /**
+     * @return Connected cube, built from the given faces
+     * @param useCompatibilityTable Whether the cube should check the edges via {@link CompatibilityTable}
+     */
+    static Cube solvedCube(List<Face> faces, boolean useCompatibilityTable) {
+
+        BacktrackingSolver solver = new BacktrackingSolver(faces);
+        if (!solver.next()) {
+            throw new IllegalStateException("Faces can't be assembled in a cube");
+        }
+
+        Cube solution = solver.getCube();
+        Cube cube = useCompatibilityTable? new Cube(CompatibilityTable.build(faces)) : new Cube();
+        for (CubeSide cubeSide : CubeSide.values()) {
+            Side side = solution.getSides().get(cubeSide);
+            cube.setFace(cubeSide, side.getFace(), side.getRotationFactor(), side.isFlipped());
+        }
+        return cube;
+    }
+
+    static class CountingCubeVisitor implements CubeVisitor {
+
+        private int resultCount;
+
+        @Override
+        public void visit(Cube cube) {
+            resultCount++;
+        }
+
+        int getResultCount() {
+            return resultCount;
+        }
+    }
+
+    static class ConnectedCubeVisitor implements CubeVisitor {
+
+        private int resultCount;
+
+        @Override
+        public void visit(Cube cube) {
+            if (cube.isConnected()) {
+                resultCount++;
+            }
+        }
+
+        int getResultCount() {
+            return resultCount;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building, comparing and printing of solutions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationBenchmark {
+
+    private Cube cube;
+    private Configuration configuration;
+    private ConfigurationWriter writer;
+
+    @Setup
+    public void setUp() {
+
+        cube = Benchmarks.solvedCube(Main.goldenFaces(), false);
+        configuration = Configuration.fromCube(cube);
+
+        // measure rendering rather than disk throughput
+        boolean isWindows = System.getProperty("os.name").startsWith("Windows");
+        writer = ConfigurationWriter.fileWriter(new File(isWindows? "NUL" : "/dev/null"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        writer.close();
+    }
+
+    @Benchmark
+    public Configuration fromCube() {
+        return Configuration.fromCube(cube);
+    }
+
+    @Benchmark
+    public Set<Configuration> buildSymmetricConfigurations() {
+        return Configuration.buildSymmetricConfigurations(configuration);
+    }
+
+    @Benchmark
+    public void writeConfiguration() {
+        writer.writeConfiguration(configuration);
+    }
+}
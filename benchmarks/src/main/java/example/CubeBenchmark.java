@@ -0,0 +1,84 @@
+package example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Edge checks and rotations of a single cube
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CubeBenchmark {
+
+    private Cube cube;
+    private Cube tableCube;
+
+    private DefaultSide side;
+    private CubeVertex[] vertices;
+
+    @Setup
+    public void setUp() {
+
+        List<Face> faces = Main.goldenFaces();
+        cube = Benchmarks.solvedCube(faces, false);
+        tableCube = Benchmarks.solvedCube(faces, true);
+
+        vertices = CubeGeometry.getVertices(CubeSide.UPPER);
+        side = new DefaultSide(Arrays.asList(vertices));
+        side.setFace(faces.get(0));
+        side.rotate();
+        side.flip();
+    }
+
+    @Benchmark
+    public boolean isConnected() {
+        return cube.isConnected();
+    }
+
+    @Benchmark
+    public boolean isConnected_CompatibilityTable() {
+        return tableCube.isConnected();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int visitRotations() {
+        Benchmarks.ConnectedCubeVisitor visitor = new Benchmarks.ConnectedCubeVisitor();
+        cube.visitRotations(visitor);
+        return visitor.getResultCount();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int visitRotations_CompatibilityTable() {
+        Benchmarks.ConnectedCubeVisitor visitor = new Benchmarks.ConnectedCubeVisitor();
+        tableCube.visitRotations(visitor);
+        return visitor.getResultCount();
+    }
+
+    @Benchmark
+    public void getEdge(Blackhole blackhole) {
+        for (CubeVertex vertex : vertices) {
+            blackhole.consume(side.getEdge(vertex));
+        }
+    }
+}
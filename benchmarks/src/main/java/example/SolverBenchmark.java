@@ -0,0 +1,67 @@
+package example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full solve of the sample sets from {@link Main}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"blue", "red", "purple", "golden"})
+    public String set;
+
+    @Param({"PERMUTATIONS", "BACKTRACKING", "DANCING_LINKS", "PROPAGATION"})
+    public SolverEngine engine;
+
+    private List<Face> faces;
+
+    @Setup
+    public void setUp() {
+        faces = Benchmarks.faces(set);
+    }
+
+    @Benchmark
+    public int solve() {
+        Benchmarks.CountingCubeVisitor visitor = new Benchmarks.CountingCubeVisitor();
+        Solver.happyCube(faces).engine(engine).cubeVisitor(visitor).solve();
+        return visitor.getResultCount();
+    }
+
+    @Benchmark
+    public int solveUnique() {
+        Benchmarks.CountingCubeVisitor visitor = new Benchmarks.CountingCubeVisitor();
+        Solver.happyCube(faces).engine(engine).cubeVisitor(visitor).uniqueSolutions().solve();
+        return visitor.getResultCount();
+    }
+
+    @Benchmark
+    public long solvePacked() {
+        final long[] result = new long[1];
+        Solver.happyCube(faces).engine(engine).solutionVisitor(new SolutionVisitor() {
+            @Override
+            public void visit(long solution) {
+                result[0] += solution;
+            }
+        }).solve();
+        return result[0];
+    }
+}
@@ -0,0 +1,249 @@
+package example;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Draws solutions with {@link ConfigurationWriter} in a dedicated thread, so that the search is not stalled by I/O.
+ *
+ * Solutions are received in the packed form (see {@link Solution}) and put into a bounded ring buffer,
+ * which is drained by the writer thread. When the buffer is full, the solver's thread either waits
+ * for the writer thread to catch up, or fails, depending on the {@link OverflowPolicy}.
+ *
+ * Solutions are written in the same order, as they are received. When the writer is closed,
+ * all pending solutions are written, and then the underlying {@link ConfigurationWriter} is closed.
+ *
+ * The writer is a {@link SolutionVisitor}, so it can be passed directly to the solver.
+ * It must not be used by several solvers concurrently.
+ */
+public class AsyncSolutionWriter implements SolutionVisitor, AutoCloseable {
+
+    /**
+     * Policy, that is applied, when the buffer is full
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Wait, until the writer thread frees some space in the buffer
+         */
+        BLOCK,
+
+        /**
+         * Throw {@link IllegalStateException}, which aborts the search
+         */
+        FAIL
+    }
+
+    /**
+     * Default number of solutions, that can be pending in the buffer
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Maximum number of solutions, that the writer thread takes from the buffer at once
+     */
+    private static final int MAX_BATCH_SIZE = 1 << 10;
+
+    private final ConfigurationWriter writer;
+    private final List<Face> faces;
+    private final OverflowPolicy policy;
+
+    private final long[] buffer;
+    private final int mask;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    /**
+     * Sequence numbers of the next solution to be taken from the buffer and put into the buffer;
+     * both are guarded by the lock
+     */
+    private long head, tail;
+    private boolean closed;
+
+    private volatile Throwable failure;
+    private final Thread thread;
+
+    private long solutionCount;
+
+    private AsyncSolutionWriter(ConfigurationWriter writer, List<Face> faces, int capacity, OverflowPolicy policy) {
+        this.writer = writer;
+        this.faces = new ArrayList<>(faces);
+        this.policy = policy;
+        this.buffer = new long[capacity];
+        this.mask = capacity - 1;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "solution-writer");
+        this.thread.setDaemon(true);
+    }
+
+    public static AsyncSolutionWriter start(ConfigurationWriter writer, List<Face> faces) {
+        return start(writer, faces, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param writer Writer, that will be owned and closed by the returned instance
+     * @param faces Faces of the puzzle, that the solutions will be found for
+     * @param capacity Number of solutions, that can be pending in the buffer; rounded up to a power of two
+     */
+    public static AsyncSolutionWriter start(ConfigurationWriter writer, List<Face> faces,
+                                            int capacity, OverflowPolicy policy) {
+
+        if (faces.isEmpty()) {
+            throw new IllegalArgumentException("Can't write solutions: no faces");
+        }
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (policy == null) {
+            throw new NullPointerException("Overflow policy is null");
+        }
+
+        int roundedCapacity = (capacity == 1)? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        AsyncSolutionWriter asyncWriter = new AsyncSolutionWriter(writer, faces, roundedCapacity, policy);
+        asyncWriter.thread.start();
+        return asyncWriter;
+    }
+
+    /**
+     * @throws IllegalStateException if the buffer is full and the policy is {@link OverflowPolicy#FAIL},
+     *                               or if the writer has been closed
+     * @throws RuntimeException if the writer thread has failed
+     */
+    @Override
+    public void visit(long solution) {
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Writer has been closed");
+            }
+            while (tail - head == buffer.length && failure == null) {
+                if (policy == OverflowPolicy.FAIL) {
+                    throw new IllegalStateException("Can't write solution: buffer is full ("
+                            + buffer.length + " pending solutions)");
+                }
+                notFull.awaitUninterruptibly();
+            }
+            checkFailure();
+
+            buffer[(int) (tail & mask)] = solution;
+            if (tail++ == head) {
+                notEmpty.signal();
+            }
+            solutionCount++;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new RuntimeException("Failed to write solutions", failure);
+        }
+    }
+
+    /**
+     * Runs in the writer thread, until the writer is closed and all pending solutions are written
+     */
+    private void drain() {
+
+        long[] batch = new long[Math.min(buffer.length, MAX_BATCH_SIZE)];
+        try {
+            while (true) {
+                int batchSize;
+                lock.lock();
+                try {
+                    while (head == tail && !closed) {
+                        notEmpty.awaitUninterruptibly();
+                    }
+                    if (head == tail) {
+                        return;
+                    }
+                    batchSize = (int) Math.min(tail - head, batch.length);
+                    for (int i = 0; i < batchSize; i++) {
+                        batch[i] = buffer[(int) ((head + i) & mask)];
+                    }
+                    head += batchSize;
+                    notFull.signal();
+
+                } finally {
+                    lock.unlock();
+                }
+
+                for (int i = 0; i < batchSize; i++) {
+                    writer.writeSolution(batch[i], faces);
+                }
+            }
+        } catch (Throwable e) {
+            lock.lock();
+            try {
+                failure = e;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return Number of solutions, that have been accepted by this writer
+     */
+    public long getSolutionCount() {
+        lock.lock();
+        try {
+            return solutionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write all pending solutions and close the underlying {@link ConfigurationWriter}.
+     * Waits for the writer thread to finish.
+     *
+     * @throws IOException if the writer thread has failed
+     */
+    @Override
+    public void close() throws IOException {
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        writer.close();
+        if (failure != null) {
+            throw new IOException("Failed to write solutions", failure);
+        }
+    }
+}
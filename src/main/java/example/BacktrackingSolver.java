@@ -0,0 +1,229 @@
+package example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Occupies the sides of a cube one by one, choosing the face and its orientation at the same time.
+ * Each placement is immediately checked against the adjacent sides, that are already occupied,
+ * so that a branch of the search is dropped on the first edge, that can't be connected.
+ *
+ * The search is incremental: each call to {@link #next()} resumes the search
+ * from the previously found solution.
+ *
+ * Just like {@link HappyCubeSolver}, the first face is always fixed at the upper side.
+ * Its orientations may be restricted to skip symmetric solutions, see {@link CubeSymmetry#getAnchorOrientations(boolean)}.
+ *
+ * Identical faces are tried only in the order of their indices, and orientations of a face, that look the same,
+ * only once (see {@link FaceSymmetry}); the skipped solutions are restored by {@link FaceSymmetry#expand}.
+ */
+class BacktrackingSolver implements SearchEngine {
+
+    /**
+     * Order, in which the sides are occupied.
+     * Each side is adjacent to at least one of the preceding sides,
+     * and the last side is adjacent to all of the preceding sides except for the first one.
+     */
+    private static final CubeSide[] SIDE_ORDER = new CubeSide[] {
+            CubeSide.UPPER, CubeSide.SOUTHERN, CubeSide.EASTERN,
+            CubeSide.NORTHERN, CubeSide.WESTERN, CubeSide.BOTTOM
+    };
+
+    private final CompatibilityTable table;
+    private final FaceSymmetry symmetry;
+    private final List<Face> faces;
+    private final Cube cube;
+    private final boolean[] used;
+    private final int anchorOrientations;
+    private final SearchControl control;
+    private final SearchCounters counters;
+    private final ProgressTracker progress;
+
+    /**
+     * Current placements (see {@link CompatibilityTable}), indexed by ordinals of cube's sides;
+     * -1 for unoccupied sides
+     */
+    private final int[] placements;
+    private int level;
+
+    BacktrackingSolver(List<Face> faces) {
+        this(CompatibilityTable.build(faces));
+    }
+
+    BacktrackingSolver(CompatibilityTable table) {
+        this(table, Orientation.COUNT, SearchControl.unlimited());
+    }
+
+    BacktrackingSolver(CompatibilityTable table, int anchorOrientations, SearchControl control) {
+        this(table, anchorOrientations, control, null, null);
+    }
+
+    /**
+     * @param anchorOrientations Number of the first orientations of the first face, that should be tried
+     * @param control Limits of the search; solutions are not counted by this solver
+     * @param counters Counters of nodes, edge checks, prunes and duplicates, may be null
+     * @param progress Tracker of the placements on the first levels, may be null
+     */
+    BacktrackingSolver(CompatibilityTable table, int anchorOrientations, SearchControl control,
+                       SearchCounters counters, ProgressTracker progress) {
+
+        if (anchorOrientations < 1 || anchorOrientations > Orientation.COUNT) {
+            throw new IllegalArgumentException("Invalid number of anchor orientations: " + anchorOrientations);
+        }
+
+        this.table = table;
+        this.symmetry = table.getFaceSymmetry();
+        this.anchorOrientations = anchorOrientations;
+        this.control = control;
+        this.counters = counters;
+        this.progress = progress;
+        this.faces = table.getFaces();
+        if (faces.size() != SIDE_ORDER.length) {
+            throw new IllegalArgumentException("Invalid number of faces: " + faces.size() +
+                    ", must be: " + SIDE_ORDER.length);
+        }
+
+        this.cube = new Cube(table);
+        this.used = new boolean[faces.size()];
+        this.placements = new int[CubeGeometry.SIDES];
+        Arrays.fill(placements, -1);
+    }
+
+    /**
+     * @return Number of the first orientations of the first face, that are tried
+     */
+    int getAnchorOrientations() {
+        return anchorOrientations;
+    }
+
+    /**
+     * @return Table, that is used by this solver
+     */
+    CompatibilityTable getCompatibilityTable() {
+        return table;
+    }
+
+    @Override
+    public void solveCubes(CubeVisitor visitor) {
+        while (next()) {
+            if (visitor != null) {
+                visitor.visit(getCube());
+            }
+        }
+    }
+
+    @Override
+    public void solveSolutions(SolutionVisitor visitor) {
+        while (next()) {
+            if (visitor != null) {
+                visitor.visit(getSolution());
+            }
+        }
+    }
+
+    /**
+     * Advance to the next solution.
+     *
+     * @return true, if the next solution has been found;
+     *         in this case, the cube returned by {@link #getCube()} is connected;
+     *         false, if there are no more solutions or the search has been stopped
+     */
+    boolean next() {
+
+        while (level >= 0) {
+            if (control.isStopped()) {
+                return false;
+            }
+            if (advance(level)) {
+                if (level == SIDE_ORDER.length - 1) {
+                    return true;
+                }
+                level++;
+            } else {
+                level--;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Cube with the current placements; the cube is updated lazily, only when it's requested
+     */
+    Cube getCube() {
+
+        for (CubeSide side : CubeSide.values()) {
+            int placement = placements[side.ordinal()];
+            if (placement >= 0) {
+                int orientation = CompatibilityTable.getOrientation(placement);
+                cube.setFace(side, faces.get(CompatibilityTable.getFaceIndex(placement)),
+                        Orientation.getRotationFactor(orientation), Orientation.isFlipped(orientation));
+            } else {
+                cube.removeFace(side);
+            }
+        }
+        return cube;
+    }
+
+    /**
+     * @return Current solution in the packed form, see {@link Solution}
+     */
+    long getSolution() {
+        return Solution.pack(placements);
+    }
+
+    /**
+     * Replace the placement on the given level with the next one, that can be connected
+     * with the adjacent occupied sides.
+     *
+     * @return false, if all placements have been tried; in this case, the side is left unoccupied
+     */
+    private boolean advance(int level) {
+
+        CubeSide side = SIDE_ORDER[level];
+
+        int placement = placements[side.ordinal()];
+        if (placement >= 0) {
+            used[CompatibilityTable.getFaceIndex(placement)] = false;
+        }
+
+        // the first face is fixed at the first side
+        int placementsCount = (level == 0)? anchorOrientations : table.getPlacementCount();
+        while (++placement < placementsCount) {
+
+            if (progress != null && level < ProgressTracker.LEVELS) {
+                progress.advance(level, placement, placementsCount);
+            }
+
+            int faceIndex = CompatibilityTable.getFaceIndex(placement);
+            if (used[faceIndex] || !symmetry.isAllowed(faceIndex, used)) {
+                if (counters != null && !used[faceIndex]) {
+                    counters.onDuplicate();
+                }
+                // skip to the last orientation of this face
+                placement = CompatibilityTable.placement(faceIndex, Orientation.COUNT - 1);
+                continue;
+            }
+            if (!symmetry.isRepresentative(placement)) {
+                if (counters != null) {
+                    counters.onDuplicate();
+                }
+                continue;
+            }
+
+            placements[side.ordinal()] = placement;
+            if (counters != null) {
+                counters.onNode();
+            }
+            if (table.isConnected(placements, side, counters)) {
+                used[faceIndex] = true;
+                return true;
+            }
+            if (counters != null) {
+                counters.onPrune(level);
+            }
+        }
+
+        placements[side.ordinal()] = -1;
+        return false;
+    }
+}
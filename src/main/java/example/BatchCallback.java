@@ -0,0 +1,13 @@
+package example;
+
+import java.util.List;
+
+/**
+ * Receives results of a batch, one puzzle at a time and in no particular order.
+ * Methods of the callback are never called concurrently.
+ */
+public interface BatchCallback {
+
+    void onResult(PuzzleResult result);
+    void onFailure(int index, List<Face> faces, Throwable error);
+}
@@ -0,0 +1,168 @@
+package example;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Solves all puzzles from a puzzle file (see {@link PuzzleFileReader}) concurrently.
+ *
+ * Usage: BatchMain [options] &lt;puzzle file&gt; &lt;output&gt;
+ * <pre>
+ *   --unique         find only unique solutions
+ *   --engine=NAME    search engine, see {@link SolverEngine}
+ *   --threads=N      maximum number of puzzles in flight
+ *   --combined       write all results to a single file, otherwise output is a directory
+ *                    with a file per puzzle (puzzle-&lt;index&gt;.txt)
+ * </pre>
+ * In the combined file results appear in the order, in which the puzzles have been solved.
+ */
+public class BatchMain {
+
+    public static void main(String[] args) {
+        int status = run(args);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    static int run(String[] args) {
+
+        boolean unique = false, combined = false;
+        SolverEngine engine = SolverEngine.PERMUTATIONS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String input = null, output = null;
+
+        for (String arg : args) {
+            if (arg.equals("--unique")) {
+                unique = true;
+            } else if (arg.equals("--combined")) {
+                combined = true;
+            } else if (arg.startsWith("--engine=")) {
+                String name = arg.substring("--engine=".length());
+                try {
+                    engine = SolverEngine.valueOf(name);
+                } catch (IllegalArgumentException e) {
+                    return usage("Unknown engine: " + name);
+                }
+            } else if (arg.startsWith("--threads=")) {
+                String value = arg.substring("--threads=".length());
+                try {
+                    threads = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads < 1) {
+                    return usage("Invalid number of threads: " + value);
+                }
+            } else if (arg.startsWith("--")) {
+                return usage("Unknown option: " + arg);
+            } else if (input == null) {
+                input = arg;
+            } else if (output == null) {
+                output = arg;
+            } else {
+                return usage("Unexpected argument: " + arg);
+            }
+        }
+        if (output == null) {
+            return usage("Puzzle file and output are required");
+        }
+
+        File outputFile = new File(output);
+        if (!combined && !outputFile.isDirectory() && !outputFile.mkdirs()) {
+            throw new RuntimeException("Failed to create directory: " + outputFile.getAbsolutePath());
+        }
+
+        long t1 = System.currentTimeMillis();
+        try (PuzzleFileReader reader = PuzzleFileReader.open(new File(input));
+             ResultWriter callback = combined?
+                     new ResultWriter(ConfigurationWriter.fileWriter(outputFile), null) :
+                     new ResultWriter(null, outputFile)) {
+
+            HappyCubeBatch batch = Solver.batch(reader).engine(engine).maxInFlight(threads);
+            if (unique) {
+                batch.uniqueSolutions();
+            }
+            batch.solve(callback);
+
+            System.out.println(String.format("Solved %d puzzles in %d ms. Solvable: %d. Failed: %d. Saved to: %s",
+                    callback.puzzleCount, (System.currentTimeMillis() - t1), callback.solvableCount,
+                    callback.failureCount, outputFile.getAbsolutePath()));
+            return (callback.failureCount == 0)? 0 : 1;
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    private static int usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: BatchMain [--unique] [--engine=NAME] [--threads=N] [--combined] <puzzle file> <output>");
+        return 2;
+    }
+
+    /**
+     * Writes the results either to a single file or to a file per puzzle in the given directory
+     */
+    private static class ResultWriter implements BatchCallback, AutoCloseable {
+
+        private final ConfigurationWriter combinedWriter;
+        private final File directory;
+
+        private int puzzleCount;
+        private int solvableCount;
+        private int failureCount;
+
+        ResultWriter(ConfigurationWriter combinedWriter, File directory) {
+            this.combinedWriter = combinedWriter;
+            this.directory = directory;
+        }
+
+        @Override
+        public void onResult(PuzzleResult result) {
+
+            puzzleCount++;
+            if (result.isSolvable()) {
+                solvableCount++;
+            }
+
+            if (combinedWriter != null) {
+                combinedWriter.writePuzzle(result.getIndex(), result.getFaces());
+                writeSolutions(combinedWriter, result);
+            } else {
+                File file = new File(directory, "puzzle-" + result.getIndex() + ".txt");
+                // exceptions thrown from the callback would be lost, so the failure is reported here
+                try (ConfigurationWriter writer = ConfigurationWriter.fileWriter(file)) {
+                    writer.writeFaces(result.getFaces());
+                    writeSolutions(writer, result);
+                } catch (IOException | RuntimeException e) {
+                    failureCount++;
+                    System.err.println("Failed to write puzzle #" + result.getIndex() +
+                            " to file " + file.getAbsolutePath() + ": " + e);
+                }
+            }
+        }
+
+        private void writeSolutions(ConfigurationWriter writer, PuzzleResult result) {
+            for (int i = 0; i < result.getSolutionCount(); i++) {
+                writer.writeSolution(result.getPackedSolution(i), result.getFaces());
+            }
+        }
+
+        @Override
+        public void onFailure(int index, List<Face> faces, Throwable error) {
+            puzzleCount++;
+            failureCount++;
+            System.err.println("Failed to solve puzzle #" + index + ": " + error);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (combinedWriter != null) {
+                combinedWriter.close();
+            }
+        }
+    }
+}
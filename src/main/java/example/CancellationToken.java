@@ -0,0 +1,19 @@
+package example;
+
+/**
+ * Allows to stop a search from another thread.
+ * The search checks the token periodically and stops soon after it has been cancelled.
+ * The same token can be shared by several searches.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
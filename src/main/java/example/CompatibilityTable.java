@@ -0,0 +1,337 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Precomputed answers to the question, whether two faces can share some edge of a cube,
+ * given the orientations of both faces.
+ *
+ * Each combination of a face and its orientation is called a "placement"
+ * and is identified by the number (face index * 8 + orientation), see {@link #placement(int, int)}.
+ * Face index is the index of the face in the list of faces, that the table has been built for.
+ *
+ * For each ordered pair of adjacent sides and each placement on the first side,
+ * the table contains a bit set of placements on the second side, that can be connected with it.
+ * Vertices are checked separately, because each vertex is shared by three sides
+ * and can only be checked, when all three sides are occupied.
+ *
+ * The table is immutable and can be shared between threads.
+ */
+public class CompatibilityTable {
+
+    private static final int[][] ADJACENT_SIDES = new int[CubeGeometry.SIDES][];
+    private static final int[][] SIDE_VERTICES = new int[CubeGeometry.SIDES][];
+    private static final int[][] VERTEX_SIDES = new int[CubeGeometry.VERTICES][];
+    private static final int[][] VERTEX_SLOTS = new int[CubeGeometry.VERTICES][];
+
+    static {
+        for (CubeSide side : CubeSide.values()) {
+            int[] adjacentSides = new int[4];
+            int count = 0;
+            for (CubeSide other : CubeSide.values()) {
+                if (CubeGeometry.getEdgeIndex(side, other) >= 0) {
+                    adjacentSides[count++] = other.ordinal();
+                }
+            }
+            ADJACENT_SIDES[side.ordinal()] = adjacentSides;
+
+            CubeVertex[] vertices = CubeGeometry.getVertices(side);
+            int[] sideVertices = new int[vertices.length];
+            for (int slot = 0; slot < vertices.length; slot++) {
+                sideVertices[slot] = vertices[slot].ordinal();
+            }
+            SIDE_VERTICES[side.ordinal()] = sideVertices;
+        }
+
+        for (CubeVertex vertex : CubeVertex.values()) {
+            CubeSide[] sides = CubeGeometry.getSides(vertex);
+            int[] vertexSides = new int[sides.length], vertexSlots = new int[sides.length];
+            for (int i = 0; i < sides.length; i++) {
+                vertexSides[i] = sides[i].ordinal();
+                vertexSlots[i] = CubeGeometry.getSlot(sides[i], vertex);
+            }
+            VERTEX_SIDES[vertex.ordinal()] = vertexSides;
+            VERTEX_SLOTS[vertex.ordinal()] = vertexSlots;
+        }
+    }
+
+    public static CompatibilityTable build(List<Face> faces) {
+        return new CompatibilityTable(faces);
+    }
+
+    /**
+     * @return Identifier of the placement of the face with the given index in the given orientation
+     * @see Orientation
+     */
+    public static int placement(int faceIndex, int orientation) {
+        return faceIndex * Orientation.COUNT + orientation;
+    }
+
+    public static int getFaceIndex(int placement) {
+        return placement / Orientation.COUNT;
+    }
+
+    public static int getOrientation(int placement) {
+        return placement % Orientation.COUNT;
+    }
+
+    private final List<Face> faces;
+    private final FaceSymmetry faceSymmetry;
+    private final int placementCount;
+    private final int wordCount;
+
+    /**
+     * Indexed by [side * 6 + adjacent side]; null for sides, that are not adjacent.
+     * Bit set for some placement on the side starts at (placement * wordCount).
+     */
+    private final long[][] candidates;
+
+    /**
+     * Corner points of each placement, k-th bit is set if there is a plug at the k-th vertex of the side
+     */
+    private final byte[] cornerPlugs;
+
+    private CompatibilityTable(List<Face> faces) {
+
+        if (faces.isEmpty()) {
+            throw new IllegalArgumentException("Can't build compatibility table: no faces");
+        }
+        int edgeSize = faces.get(0).getEdges().get(0).getSize();
+        for (Face face : faces) {
+            if (face.getEdges().get(0).getSize() != edgeSize) {
+                throw new IllegalArgumentException("Can't build compatibility table: faces have different edge sizes");
+            }
+        }
+
+        this.faces = Collections.unmodifiableList(new ArrayList<>(faces));
+        this.faceSymmetry = FaceSymmetry.of(faces);
+        this.placementCount = faces.size() * Orientation.COUNT;
+        this.wordCount = (placementCount + Long.SIZE - 1) / Long.SIZE;
+
+        cornerPlugs = new byte[placementCount];
+        for (int placement = 0; placement < placementCount; placement++) {
+            for (int slot = 0; slot < 4; slot++) {
+                if (getCorner(placement, slot) == 1) {
+                    cornerPlugs[placement] |= 1 << slot;
+                }
+            }
+        }
+
+        candidates = new long[CubeGeometry.SIDES * CubeGeometry.SIDES][];
+        for (int edge = 0; edge < CubeGeometry.EDGES; edge++) {
+
+            CubeSide s1 = CubeGeometry.getEdgeSide(edge, 0), s2 = CubeGeometry.getEdgeSide(edge, 1);
+            int slot1 = CubeGeometry.getSlot(s1, CubeGeometry.getEdgeVertex(edge, 0)),
+                slot2 = CubeGeometry.getSlot(s2, CubeGeometry.getEdgeVertex(edge, 1));
+
+            long[] forward = new long[placementCount * wordCount], backward = new long[placementCount * wordCount];
+            for (int p1 = 0; p1 < placementCount; p1++) {
+                for (int p2 = 0; p2 < placementCount; p2++) {
+                    if (canConnect(p1, slot1, p2, slot2)) {
+                        forward[p1 * wordCount + p2 / Long.SIZE] |= 1L << p2;
+                        backward[p2 * wordCount + p1 / Long.SIZE] |= 1L << p1;
+                    }
+                }
+            }
+            candidates[s1.ordinal() * CubeGeometry.SIDES + s2.ordinal()] = forward;
+            candidates[s2.ordinal() * CubeGeometry.SIDES + s1.ordinal()] = backward;
+        }
+    }
+
+    /**
+     * Same logic as in {@link DefaultSide#getEdge(CubeVertex)}
+     * for the edge, that starts with the vertex at the given index in the side's list of vertices.
+     */
+    private Edge getEdge(int placement, int slot) {
+        return getEdge(faces.get(getFaceIndex(placement)), getOrientation(placement), slot);
+    }
+
+    /**
+     * @return Edge of the face in the given orientation, that starts with the vertex at the given slot of a side
+     */
+    static Edge getEdge(Face face, int orientation, int slot) {
+        return face.getEdges().get(CubeGeometry.getFaceEdgeIndex(orientation, slot));
+    }
+
+    private byte getCorner(int placement, int slot) {
+        Edge edge = getEdge(placement, slot);
+        long[] plugs = Orientation.isFlipped(getOrientation(placement))? edge.getPlugWordsReverse() : edge.getPlugWords();
+        return (byte) (plugs[0] & 1L);
+    }
+
+    /**
+     * Same logic as in {@link Cube#isConnected(CubeSide)}: points are compared with
+     * {@link EdgeMask#canConnect(long[], int, long[], int, int)}, except for the check of vertices,
+     * where both edges have sockets: it's done separately, see {@link #hasPlug(int, int)}
+     */
+    private boolean canConnect(int p1, int slot1, int p2, int slot2) {
+
+        Edge e1 = getEdge(p1, slot1), e2 = getEdge(p2, slot2);
+        boolean flipped1 = Orientation.isFlipped(getOrientation(p1)),
+                flipped2 = Orientation.isFlipped(getOrientation(p2));
+
+        long[] plugs1 = flipped1? e1.getPlugWordsReverse() : e1.getPlugWords();
+        long[] plugs2 = flipped2? e2.getPlugWords() : e2.getPlugWordsReverse();
+        return EdgeMask.canConnect(plugs1, 0, plugs2, 0, e1.getSize());
+    }
+
+    public List<Face> getFaces() {
+        return faces;
+    }
+
+    /**
+     * @return Identical and symmetric faces among the faces of this table
+     */
+    FaceSymmetry getFaceSymmetry() {
+        return faceSymmetry;
+    }
+
+    /**
+     * @return Index of the face (compared by identity), or -1 if there's no such face in this table
+     */
+    public int indexOf(Face face) {
+        for (int i = 0; i < faces.size(); i++) {
+            if (faces.get(i) == face) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getPlacementCount() {
+        return placementCount;
+    }
+
+    /**
+     * @return Number of 64-bit words in each bit set of placements
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * @return true, if the edge between two adjacent sides can be connected,
+     *         when the sides are occupied by the given placements
+     * @throws IllegalArgumentException if the sides are not adjacent
+     */
+    public boolean canConnect(CubeSide side1, int placement1, CubeSide side2, int placement2) {
+        return canConnect(getCandidates(side1, side2), placement1, placement2);
+    }
+
+    private boolean canConnect(long[] candidates, int placement1, int placement2) {
+        return (candidates[placement1 * wordCount + placement2 / Long.SIZE] & (1L << placement2)) != 0;
+    }
+
+    /**
+     * @return Word of the bit set of placements on the adjacent side,
+     *         that can be connected with the given placement on the given side
+     * @throws IllegalArgumentException if the sides are not adjacent
+     */
+    public long getCandidates(CubeSide side, int placement, CubeSide adjacentSide, int word) {
+        return getCandidates(side, adjacentSide)[placement * wordCount + word];
+    }
+
+    private long[] getCandidates(CubeSide side, CubeSide adjacentSide) {
+        long[] candidates = this.candidates[side.ordinal() * CubeGeometry.SIDES + adjacentSide.ordinal()];
+        if (candidates == null) {
+            throw new IllegalArgumentException("Sides are not adjacent: " + side.name() + ", " + adjacentSide.name());
+        }
+        return candidates;
+    }
+
+    /**
+     * @return true, if the placement has a plug at the given vertex of the side
+     * @throws IllegalArgumentException if the side does not have the vertex
+     */
+    public boolean hasPlug(CubeSide side, int placement, CubeVertex vertex) {
+        int slot = CubeGeometry.getSlot(side, vertex);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Side does not have a vertex: " + vertex.name());
+        }
+        return hasPlug(placement, slot);
+    }
+
+    private boolean hasPlug(int placement, int slot) {
+        return (cornerPlugs[placement] & (1 << slot)) != 0;
+    }
+
+    /**
+     * @param placements Placements, indexed by ordinals of cube's sides
+     * @return true, if all 12 edges and all 8 vertices of the cube are connected
+     */
+    public boolean isConnected(int[] placements) {
+        return isConnected(placements, (SearchCounters) null);
+    }
+
+    /**
+     * Same as {@link #isConnected(int[])}
+     *
+     * @param counters Counters of edge checks, may be null
+     */
+    boolean isConnected(int[] placements, SearchCounters counters) {
+
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            if (!isConnected(placements, side, counters)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check the edges and vertices of the given side, ignoring those that are shared with unoccupied sides.
+     * See {@link Cube#isConnected(CubeSide)}.
+     *
+     * @param placements Placements, indexed by ordinals of cube's sides; -1 for unoccupied sides
+     * @return true, if the given side can be connected with all adjacent occupied sides
+     */
+    public boolean isConnected(int[] placements, CubeSide side) {
+        return isConnected(placements, side.ordinal(), null);
+    }
+
+    /**
+     * Same as {@link #isConnected(int[], CubeSide)}
+     *
+     * @param counters Counters of edge checks, may be null
+     */
+    boolean isConnected(int[] placements, CubeSide side, SearchCounters counters) {
+        return isConnected(placements, side.ordinal(), counters);
+    }
+
+    private boolean isConnected(int[] placements, int side, SearchCounters counters) {
+
+        int placement = placements[side];
+        for (int adjacentSide : ADJACENT_SIDES[side]) {
+            int adjacentPlacement = placements[adjacentSide];
+            if (adjacentPlacement < 0) {
+                continue;
+            }
+            if (counters != null) {
+                counters.onEdgeCheck();
+            }
+            if (!canConnect(candidates[side * CubeGeometry.SIDES + adjacentSide], placement, adjacentPlacement)) {
+                return false;
+            }
+        }
+
+        // edges guarantee that there are no two plugs in the same vertex,
+        // so it only remains to check that each vertex has at least one plug
+        for (int vertex : SIDE_VERTICES[side]) {
+            int[] vertexSides = VERTEX_SIDES[vertex], vertexSlots = VERTEX_SLOTS[vertex];
+            boolean hasPlug = false;
+            for (int i = 0; i < vertexSides.length; i++) {
+                int vertexPlacement = placements[vertexSides[i]];
+                if (vertexPlacement < 0 || hasPlug(vertexPlacement, vertexSlots[i])) {
+                    hasPlug = true;
+                    break;
+                }
+            }
+            if (!hasPlug) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,7 +1,9 @@
 package example;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -20,6 +22,23 @@ public class Configuration {
         return new Configuration(configuration);
     }
 
+    /**
+     * @param solution Packed solution, see {@link Solution}
+     * @param faces Faces of the puzzle, that the solution has been found for
+     */
+    public static Configuration fromSolution(long solution, List<Face> faces) {
+
+        Map<CubeSide, SideConfiguration> configuration = new HashMap<>((int)(6 / 0.75));
+        for (CubeSide sideType : CubeSide.values()) {
+            configuration.put(sideType,
+                    new SideConfiguration(Arrays.asList(CubeGeometry.getVertices(sideType)),
+                            faces.get(Solution.getFaceIndex(solution, sideType)),
+                            Solution.getRotationFactor(solution, sideType), Solution.isFlipped(solution, sideType)));
+        }
+
+        return new Configuration(configuration);
+    }
+
     public Map<CubeSide, SideConfiguration> getSides() {
         return configuration;
     }
@@ -47,92 +66,45 @@ public class Configuration {
         return this.configuration.equals(solution);
     }
 
+    /**
+     * @return All 24 configurations, that are obtained by rotating the cube in space (including the original one)
+     */
     public static Set<Configuration> buildSymmetricConfigurations(Configuration configuration) {
-
-        Map<CubeSide, SideConfiguration> sides = configuration.getSides();
-
-        Set<Configuration> horizontalRotations = new HashSet<>((int)(4 / 0.75));
-        // add original solution
-        horizontalRotations.add(buildConfiguration(sides,
-                new Shift(CubeSide.UPPER, CubeSide.UPPER, 0),
-                new Shift(CubeSide.BOTTOM, CubeSide.BOTTOM, 0),
-                new Shift(CubeSide.WESTERN, CubeSide.WESTERN, 0),
-                new Shift(CubeSide.EASTERN, CubeSide.EASTERN, 0),
-                new Shift(CubeSide.SOUTHERN, CubeSide.SOUTHERN, 0),
-                new Shift(CubeSide.NORTHERN, CubeSide.NORTHERN, 0)
-        ));
-
-        // add 3 horizontal rotations (N -> E -> S -> W); U rotating clockwise & B rotating counter-clockwise by 90' at a time
-        horizontalRotations.add(buildConfiguration(sides,
-                new Shift(CubeSide.UPPER, CubeSide.UPPER, 1),
-                new Shift(CubeSide.BOTTOM, CubeSide.BOTTOM, -1),
-                new Shift(CubeSide.WESTERN, CubeSide.NORTHERN, 0),
-                new Shift(CubeSide.NORTHERN, CubeSide.EASTERN, 0),
-                new Shift(CubeSide.EASTERN, CubeSide.SOUTHERN, 0),
-                new Shift(CubeSide.SOUTHERN, CubeSide.WESTERN, 0)
-        ));
-
-        horizontalRotations.add(buildConfiguration(sides,
-                new Shift(CubeSide.UPPER, CubeSide.UPPER, 2),
-                new Shift(CubeSide.BOTTOM, CubeSide.BOTTOM, -2),
-                new Shift(CubeSide.WESTERN, CubeSide.EASTERN, 0),
-                new Shift(CubeSide.NORTHERN, CubeSide.SOUTHERN, 0),
-                new Shift(CubeSide.EASTERN, CubeSide.WESTERN, 0),
-                new Shift(CubeSide.SOUTHERN, CubeSide.NORTHERN, 0)
-        ));
-
-        horizontalRotations.add(buildConfiguration(sides,
-                new Shift(CubeSide.UPPER, CubeSide.UPPER, 3),
-                new Shift(CubeSide.BOTTOM, CubeSide.BOTTOM, -3),
-                new Shift(CubeSide.WESTERN, CubeSide.SOUTHERN, 0),
-                new Shift(CubeSide.NORTHERN, CubeSide.WESTERN, 0),
-                new Shift(CubeSide.EASTERN, CubeSide.NORTHERN, 0),
-                new Shift(CubeSide.SOUTHERN, CubeSide.EASTERN, 0)
-        ));
-
-        return horizontalRotations;
+        return buildSymmetricConfigurations(configuration, false);
     }
 
-    private static Configuration buildConfiguration(Map<CubeSide, ? extends SideConfiguration> horizontalRotation, Shift... shifts) {
-
-        Map<CubeSide, SideConfiguration> configuration = new HashMap<>((int)(6 / 0.75));
-        for (Shift shift : shifts) {
-            SideConfiguration rotatedFace = horizontalRotation.get(shift.getFrom());
-            int rotationFactor = rotatedFace.getRotationFactor() + shift.getRotationFactor();
-            if (rotationFactor < 0) {
-                rotationFactor = Math.abs(4 - Math.abs(rotationFactor)) % 4;
-            } else {
-                rotationFactor = rotationFactor % 4;
-            }
-            configuration.put(shift.getTo(),
-                    new SideConfiguration(rotatedFace.getVertices(), rotatedFace.getFace(),
-                            rotationFactor, rotatedFace.isFlipped()));
+    /**
+     * @param includeMirrorImages Whether mirror images of the cube should be included
+     *                            (the mirror image is assembled from the same faces, each face being flipped)
+     * @return All 24 configurations, that are obtained by rotating the cube in space (including the original one),
+     *         and, optionally, all 24 rotations of the cube's mirror image
+     */
+    public static Set<Configuration> buildSymmetricConfigurations(Configuration configuration,
+                                                                  boolean includeMirrorImages) {
+
+        int symmetries = includeMirrorImages? CubeSymmetry.SYMMETRIES : CubeSymmetry.ROTATIONS;
+        Set<Configuration> symmetricConfigurations = new HashSet<>((int)(symmetries / 0.75));
+        for (int symmetry = 0; symmetry < symmetries; symmetry++) {
+            symmetricConfigurations.add(buildConfiguration(configuration.getSides(), symmetry));
         }
-        return new Configuration(configuration);
+        return symmetricConfigurations;
     }
 
-    private static class Shift {
-
-        private CubeSide from, to;
-        private int rotationFactor;
-
-        public Shift(CubeSide from, CubeSide to, int rotationFactor) {
-
-            this.from = from;
-            this.to = to;
-            this.rotationFactor = rotationFactor;
-        }
+    private static Configuration buildConfiguration(Map<CubeSide, ? extends SideConfiguration> sides, int symmetry) {
 
-        public CubeSide getFrom() {
-            return from;
-        }
+        Map<CubeSide, SideConfiguration> configuration = new HashMap<>((int)(6 / 0.75));
+        for (Map.Entry<CubeSide, ? extends SideConfiguration> entry : sides.entrySet()) {
+            CubeSide side = entry.getKey();
+            SideConfiguration sideConfiguration = entry.getValue();
 
-        public CubeSide getTo() {
-            return to;
-        }
+            CubeSide movedSide = CubeSymmetry.moveSide(symmetry, side);
+            int orientation = CubeSymmetry.moveOrientation(symmetry, side,
+                    Orientation.of(sideConfiguration.getRotationFactor(), sideConfiguration.isFlipped()));
 
-        public int getRotationFactor() {
-            return rotationFactor;
+            configuration.put(movedSide,
+                    new SideConfiguration(Arrays.asList(CubeGeometry.getVertices(movedSide)), sideConfiguration.getFace(),
+                            Orientation.getRotationFactor(orientation), Orientation.isFlipped(orientation)));
         }
+        return new Configuration(configuration);
     }
 }
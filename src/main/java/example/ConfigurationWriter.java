@@ -3,10 +3,19 @@ package example;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Draws faces and solutions as ASCII art.
+ *
+ * Each face is drawn as a square block of (edge size x edge size) characters.
+ * A face can be drawn in 8 different ways (one per orientation, see {@link Orientation}),
+ * so the blocks are built only once for each face and orientation, and then cached.
+ * Each solution is assembled from the cached blocks into a reusable buffer, which is written at once.
+ */
 public class ConfigurationWriter implements AutoCloseable {
 
     private final static char WHITESPACE = ' ';
@@ -14,12 +23,62 @@ public class ConfigurationWriter implements AutoCloseable {
     private final static char PLUG = 'X';
     private final static int MARGIN_SIZE = 3;
 
+    private final static char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+    private final static char[] SOLUTION_TITLE = "Solution #".toCharArray();
+
+    private final static CubeSide[] CUBE_SIDES = CubeSide.values();
+
+    /**
+     * Sides of the cube, as they are laid out in the drawing (3 blocks per row); null for empty blocks
+     */
+    private final static CubeSide[][] LAYOUT = new CubeSide[][] {
+            {null, CubeSide.NORTHERN, null},
+            {CubeSide.WESTERN, CubeSide.UPPER, CubeSide.EASTERN},
+            {null, CubeSide.SOUTHERN, null},
+            {null, CubeSide.BOTTOM, null}
+    };
+
+    /**
+     * [side] -> slot of the vertex, that is drawn in the upper-left corner of the side's block;
+     * the other vertices follow clockwise
+     */
+    private final static int[] UPPER_LEFT_SLOTS = new int[CubeGeometry.SIDES];
+
+    static {
+        setUpperLeftVertex(CubeSide.NORTHERN, CubeVertex.DWN);
+        setUpperLeftVertex(CubeSide.WESTERN, CubeVertex.DWN);
+        setUpperLeftVertex(CubeSide.UPPER, CubeVertex.UWN);
+        setUpperLeftVertex(CubeSide.EASTERN, CubeVertex.UEN);
+        setUpperLeftVertex(CubeSide.SOUTHERN, CubeVertex.UWS);
+        setUpperLeftVertex(CubeSide.BOTTOM, CubeVertex.DWS);
+    }
+
+    private static void setUpperLeftVertex(CubeSide side, CubeVertex vertex) {
+        UPPER_LEFT_SLOTS[side.ordinal()] = CubeGeometry.getSlot(side, vertex);
+    }
+
     private final PrintWriter writer;
 
     private int solutionsPrinted;
 
+    /**
+     * Face -> blocks, indexed by orientation of the drawing (see {@link #getDrawingOrientation(CubeSide, int)});
+     * blocks are built on demand
+     */
+    private final Map<Face, char[][]> blocks;
+
+    /**
+     * Blocks of the current solution, indexed by ordinals of cube's sides
+     */
+    private final char[][] sideBlocks;
+
+    private char[] buffer;
+
     private ConfigurationWriter(PrintWriter writer) {
         this.writer = writer;
+        this.blocks = new HashMap<>();
+        this.sideBlocks = new char[CubeGeometry.SIDES][];
+        this.buffer = new char[0];
     }
 
     public static ConfigurationWriter fileWriter(File file) {
@@ -51,201 +110,205 @@ public class ConfigurationWriter implements AutoCloseable {
         writer.println();
         writer.println();
 
-        BlockWriter blockWriter = new BlockWriter(edgeSize);
-
         int faceCount = faces.size();
-        Edge[] edges = new Edge[4];
         for (int i = 0; i < faceCount; i = i + 3) {
+            char[] leftBlock = getBlock(faces.get(i), 0),
+                   centerBlock = (i + 1 < faceCount)? getBlock(faces.get(i + 1), 0) : null,
+                   rightBlock = (i + 2 < faceCount)? getBlock(faces.get(i + 2), 0) : null;
 
-            Face leftFace = faces.get(i);
-            Block leftBlock = buildBlock(false, leftFace.getEdges().toArray(edges));
-            Block centerBlock = null, rightBlock = null;
-            if (i + 1 < faceCount) {
-                Face centerFace = faces.get(i + 1);
-                centerBlock = buildBlock(false, centerFace.getEdges().toArray(edges));
-            }
-            if (i + 2 < faceCount) {
-                Face rightFace = faces.get(i + 2);
-                rightBlock = buildBlock(false, rightFace.getEdges().toArray(edges));
-            }
-
-            blockWriter.writeBlocks(leftBlock, centerBlock, rightBlock);
+            ensureCapacity(getBlockRowLength(edgeSize));
+            int length = writeBlockRow(0, edgeSize, leftBlock, centerBlock, rightBlock);
+            writer.write(buffer, 0, length);
         }
     }
 
+    /**
+     * Start a section for another puzzle, when several puzzles are written to the same file:
+     * write the title and the faces of the puzzle, and start numbering solutions from 1 again
+     */
+    public void writePuzzle(int index, List<Face> faces) {
+
+        writer.print(String.format("Puzzle #%d", index));
+        writer.println();
+        writer.println();
+        solutionsPrinted = 0;
+        writeFaces(faces);
+    }
+
     public void writeConfiguration(Configuration configuration) {
 
         Map<CubeSide, SideConfiguration> sides = configuration.getSides();
+        for (CubeSide cubeSide : CUBE_SIDES) {
+            SideConfiguration side = sides.get(cubeSide);
+            sideBlocks[cubeSide.ordinal()] = getBlock(side.getFace(), getDrawingOrientation(cubeSide,
+                    Orientation.of(side.getRotationFactor(), side.isFlipped())));
+        }
+        writeSolution(sides.get(CubeSide.NORTHERN).getFace().getEdges().get(0).getSize());
+    }
 
-        SideConfiguration northernSide = sides.get(CubeSide.NORTHERN);
-        int edgeSize = northernSide.getFace().getEdges().get(0).getSize();
+    /**
+     * Same as {@link #writeConfiguration(Configuration)}, but for a packed solution (see {@link Solution})
+     *
+     * @param faces Faces of the puzzle, that the solution has been found for
+     */
+    public void writeSolution(long solution, List<Face> faces) {
 
-        int pageWidth = 3 * MARGIN_SIZE + 3 * edgeSize;
-        for (int i = 0; i < pageWidth; i++) {
-            writer.print('*');
+        for (CubeSide side : CUBE_SIDES) {
+            int placement = Solution.getPlacement(solution, side);
+            sideBlocks[side.ordinal()] = getBlock(faces.get(CompatibilityTable.getFaceIndex(placement)),
+                    getDrawingOrientation(side, CompatibilityTable.getOrientation(placement)));
         }
-        writer.println();
-        writer.print("Solution #" + ++solutionsPrinted);
-        writer.println();
-        writer.println();
+        writeSolution(faces.get(0).getEdges().get(0).getSize());
+    }
 
-        BlockWriter blockWriter = new BlockWriter(edgeSize);
+    private void writeSolution(int edgeSize) {
 
-        blockWriter.writeBlocks(null, buildBlock(sides.get(CubeSide.NORTHERN),
-                CubeVertex.DWN, CubeVertex.DEN, CubeVertex.UEN, CubeVertex.UWN), null);
+        int pageWidth = 3 * MARGIN_SIZE + 3 * edgeSize;
+        ensureCapacity(pageWidth + SOLUTION_TITLE.length + 10 + 4 * LINE_SEPARATOR.length
+                + LAYOUT.length * getBlockRowLength(edgeSize));
 
-        blockWriter.writeBlocks(
-                buildBlock(sides.get(CubeSide.WESTERN), CubeVertex.DWN, CubeVertex.UWN, CubeVertex.UWS, CubeVertex.DWS),
-                buildBlock(sides.get(CubeSide.UPPER), CubeVertex.UWN, CubeVertex.UEN, CubeVertex.UES, CubeVertex.UWS),
-                buildBlock(sides.get(CubeSide.EASTERN), CubeVertex.UEN, CubeVertex.DEN, CubeVertex.DES, CubeVertex.UES)
-        );
+        int position = 0;
+        Arrays.fill(buffer, position, position + pageWidth, '*');
+        position = writeLineSeparator(position + pageWidth);
 
-        blockWriter.writeBlocks(null, buildBlock(sides.get(CubeSide.SOUTHERN),
-                CubeVertex.UWS, CubeVertex.UES, CubeVertex.DES, CubeVertex.DWS), null);
+        System.arraycopy(SOLUTION_TITLE, 0, buffer, position, SOLUTION_TITLE.length);
+        position = writeNumber(position + SOLUTION_TITLE.length, ++solutionsPrinted);
+        position = writeLineSeparator(position);
+        position = writeLineSeparator(position);
 
-        blockWriter.writeBlocks(null, buildBlock(sides.get(CubeSide.BOTTOM),
-                CubeVertex.DWS, CubeVertex.DES, CubeVertex.DEN, CubeVertex.DWN), null);
+        for (CubeSide[] row : LAYOUT) {
+            position = writeBlockRow(position, edgeSize,
+                    getSideBlock(row[0]), getSideBlock(row[1]), getSideBlock(row[2]));
+        }
+        position = writeLineSeparator(position);
 
-        writer.println();
+        writer.write(buffer, 0, position);
+    }
+
+    private char[] getSideBlock(CubeSide side) {
+        return (side == null)? null : sideBlocks[side.ordinal()];
     }
 
     /**
-     * @param vertices Should be in the following order: upper-right, upper-left, bottom-right, bottom-left
+     * Blocks are drawn starting with the side's vertex at {@link #UPPER_LEFT_SLOTS},
+     * which is the same as drawing the face rotated back by this number of slots, starting with the first slot.
+     *
+     * @param orientation Orientation of the face on the side
+     * @return Orientation of the face's block in the drawing
      */
-    private Block buildBlock(SideConfiguration side, CubeVertex... vertices) {
-
-        Edge upperEdge = side.getEdge(vertices[0]);
-        Edge rightEdge = side.getEdge(vertices[1]);
+    private static int getDrawingOrientation(CubeSide side, int orientation) {
+        int rotationFactor = (Orientation.getRotationFactor(orientation) - UPPER_LEFT_SLOTS[side.ordinal()] + 4) % 4;
+        return Orientation.of(rotationFactor, Orientation.isFlipped(orientation));
+    }
 
-        // bottom and left edges are printed in reverse order
-        Edge bottomEdge = side.getEdge(vertices[2]);
-        Edge leftEdge = side.getEdge(vertices[3]);
+    private char[] getBlock(Face face, int orientation) {
 
-        return buildBlock(side.isFlipped(), upperEdge, rightEdge, bottomEdge, leftEdge);
+        char[][] faceBlocks = blocks.get(face);
+        if (faceBlocks == null) {
+            faceBlocks = new char[Orientation.COUNT][];
+            blocks.put(face, faceBlocks);
+        }
+        if (faceBlocks[orientation] == null) {
+            faceBlocks[orientation] = buildBlock(face, orientation);
+        }
+        return faceBlocks[orientation];
     }
 
     /**
-     * @param edges Should be in the following order: upper, right, bottom, left
+     * @return Block of (edge size x edge size) characters, row by row
      */
-    private Block buildBlock(boolean reverse, Edge... edges) {
+    private static char[] buildBlock(Face face, int orientation) {
 
-        Edge upperEdge = edges[0];
-        final Iterator<Byte> upperPoints = reverse? upperEdge.iteratorReverse() : upperEdge.iterator();
-        Edge rightEdge = edges[1];
-        final Iterator<Byte> rightPoints = reverse? rightEdge.iteratorReverse() : rightEdge.iterator();
+        List<Edge> edges = face.getEdges();
+        Edge upperEdge = edges.get(CubeGeometry.getFaceEdgeIndex(orientation, 0)),
+             rightEdge = edges.get(CubeGeometry.getFaceEdgeIndex(orientation, 1)),
+             bottomEdge = edges.get(CubeGeometry.getFaceEdgeIndex(orientation, 2)),
+             leftEdge = edges.get(CubeGeometry.getFaceEdgeIndex(orientation, 3));
 
-        // bottom and left edges are printed in reverse order
-        Edge bottomEdge = edges[2];
-        final Iterator<Byte> bottomPoints = reverse? bottomEdge.iterator() : bottomEdge.iteratorReverse();
-        Edge leftEdge = edges[3];
-        final Iterator<Byte> leftPoints = reverse? leftEdge.iterator() : leftEdge.iteratorReverse();
-
-        return new Block() {
-            @Override
-            Iterator<Byte> getUpperEdge() {
-                return upperPoints;
-            }
+        boolean reverse = Orientation.isFlipped(orientation);
+        byte[] upperPoints = reverse? upperEdge.getPointsReverse() : upperEdge.getPoints();
+        byte[] rightPoints = reverse? rightEdge.getPointsReverse() : rightEdge.getPoints();
 
-            @Override
-            Iterator<Byte> getLeftEdge() {
-                return leftPoints;
-            }
-
-            @Override
-            Iterator<Byte> getRightEdge() {
-                return rightPoints;
-            }
-
-            @Override
-            Iterator<Byte> getBottomEdge() {
-                return bottomPoints;
-            }
-        };
+        // bottom and left edges are printed in reverse order
+        byte[] bottomPoints = reverse? bottomEdge.getPoints() : bottomEdge.getPointsReverse();
+        byte[] leftPoints = reverse? leftEdge.getPoints() : leftEdge.getPointsReverse();
+
+        int edgeSize = upperEdge.getSize();
+        char[] block = new char[edgeSize * edgeSize];
+        Arrays.fill(block, PLUG);
+        for (int i = 0; i < edgeSize; i++) {
+            block[i] = getCharForPoint(upperPoints[i]);
+            block[(edgeSize - 1) * edgeSize + i] = getCharForPoint(bottomPoints[i]);
+        }
+        // first points in left and right edges are drawn as part of the upper edge
+        for (int line = 1; line < edgeSize - 1; line++) {
+            block[line * edgeSize] = getCharForPoint(leftPoints[line]);
+            block[line * edgeSize + edgeSize - 1] = getCharForPoint(rightPoints[line]);
+        }
+        return block;
     }
 
-    private abstract class Block {
-        abstract Iterator<Byte> getUpperEdge();
-        abstract Iterator<Byte> getLeftEdge();
-        abstract Iterator<Byte> getRightEdge();
-        abstract Iterator<Byte> getBottomEdge();
+    private static char getCharForPoint(byte point) {
+        return point == 0? SOCKET : PLUG;
     }
 
-    private class BlockWriter {
+    private static int getBlockRowLength(int edgeSize) {
+        int lineLength = 3 * MARGIN_SIZE + 3 * edgeSize + LINE_SEPARATOR.length;
+        return edgeSize * lineLength + LINE_SEPARATOR.length;
+    }
 
-        private final int[] blockIndices;
-        private final int LEFT_BLOCK_START = 0;
-        private final int CENTER_BLOCK_START = 2;
-        private final int RIGHT_BLOCK_START = 4;
-        private final int edgeSize;
+    /**
+     * Write a row of three blocks (each one may be null), followed by an empty line
+     *
+     * @return Position in the buffer after the row
+     */
+    private int writeBlockRow(int position, int edgeSize, char[] leftBlock, char[] centerBlock, char[] rightBlock) {
 
-        private BlockWriter(int edgeSize) {
+        for (int line = 0; line < edgeSize; line++) {
+            position = writeBlockLine(position, edgeSize, line, leftBlock);
+            position = writeBlockLine(position, edgeSize, line, centerBlock);
+            position = writeBlockLine(position, edgeSize, line, rightBlock);
+            position = writeLineSeparator(position);
+        }
+        return writeLineSeparator(position);
+    }
 
-            this.edgeSize = edgeSize;
+    private int writeBlockLine(int position, int edgeSize, int line, char[] block) {
 
-            blockIndices = new int[6];
-            for (int i = 0; i < 5; i = i + 2) {
-                if (i == 0) {
-                    blockIndices[i] = MARGIN_SIZE;
-                } else {
-                    blockIndices[i] = blockIndices[i-1] + MARGIN_SIZE; // block start
-                }
-                blockIndices[i+1] = blockIndices[i] + edgeSize; // block end
-            }
+        Arrays.fill(buffer, position, position + MARGIN_SIZE, WHITESPACE);
+        position += MARGIN_SIZE;
+        if (block == null) {
+            Arrays.fill(buffer, position, position + edgeSize, WHITESPACE);
+        } else {
+            System.arraycopy(block, line * edgeSize, buffer, position, edgeSize);
         }
+        return position + edgeSize;
+    }
 
-        public void writeBlocks(Block leftBlock, Block centerBlock, Block rightBlock) {
+    private int writeLineSeparator(int position) {
+        System.arraycopy(LINE_SEPARATOR, 0, buffer, position, LINE_SEPARATOR.length);
+        return position + LINE_SEPARATOR.length;
+    }
 
-            // skip first point in left and right edges,
-            // because they will be printed as part of the upper edge
-            if (leftBlock != null) {
-                leftBlock.getLeftEdge().next();
-                leftBlock.getRightEdge().next();
-            }
-            if (centerBlock != null) {
-                centerBlock.getLeftEdge().next();
-                centerBlock.getRightEdge().next();
-            }
-            if (rightBlock != null) {
-                rightBlock.getLeftEdge().next();
-                rightBlock.getRightEdge().next();
-            }
+    /**
+     * Write decimal digits of a non-negative number
+     */
+    private int writeNumber(int position, int number) {
 
-            for (int line = 0; line < edgeSize; line++) {
-                for (int col = 0; col < blockIndices[RIGHT_BLOCK_START+1]; col++) {
-                    if (leftBlock != null && col >= blockIndices[LEFT_BLOCK_START] && col < blockIndices[LEFT_BLOCK_START+1]) {
-                        writeBlockSymbol(line, col, blockIndices[LEFT_BLOCK_START], blockIndices[LEFT_BLOCK_START+1], leftBlock);
-                    } else if (centerBlock != null && col >= blockIndices[CENTER_BLOCK_START] && col < blockIndices[CENTER_BLOCK_START+1]) {
-                        writeBlockSymbol(line, col, blockIndices[CENTER_BLOCK_START], blockIndices[CENTER_BLOCK_START+1], centerBlock);
-                    } else if (rightBlock != null && col >= blockIndices[RIGHT_BLOCK_START] && col < blockIndices[RIGHT_BLOCK_START+1]) {
-                        writeBlockSymbol(line, col, blockIndices[RIGHT_BLOCK_START], blockIndices[RIGHT_BLOCK_START+1], rightBlock);
-                    } else {
-                        writer.write(WHITESPACE);
-                    }
-                }
-                writer.println();
-            }
-            writer.println();
+        int digits = 1;
+        for (int n = number / 10; n > 0; n /= 10) {
+            digits++;
         }
-
-        private void writeBlockSymbol(int line, int col, int blockStart, int blockEnd, Block block) {
-
-            if (line == 0) {
-                writer.write(getCharForPoint(block.getUpperEdge().next()));
-            } else if (line >= 1 && line < edgeSize-1) {
-                if (col == blockStart) {
-                    writer.write(getCharForPoint(block.getLeftEdge().next()));
-                } else if (col == blockEnd-1) {
-                    writer.write(getCharForPoint(block.getRightEdge().next()));
-                } else {
-                    writer.write(PLUG);
-                }
-            } else if (line == edgeSize-1) {
-                writer.write(getCharForPoint(block.getBottomEdge().next()));
-            }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + number % 10);
+            number /= 10;
         }
+        return position + digits;
+    }
 
-        private char getCharForPoint(Byte point) {
-            return point == 0? SOCKET : PLUG;
+    private void ensureCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            buffer = new char[capacity];
         }
     }
 
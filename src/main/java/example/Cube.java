@@ -1,7 +1,7 @@
 package example;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,89 +26,149 @@ import java.util.Map;
  * Each rotation of a cube can be either "connected" or "disconnected".
  * If all 12 edges of the cube are connected (which means that corresponding edges of the adjacent sides
  * can be connected), then such rotation of a cube is called "connected", otherwise it's not.
+ *
+ * The state of each side (face, its index and orientation) is kept in arrays, indexed by ordinals of sides,
+ * and the topology of the cube is taken from static tables, see {@link CubeGeometry}.
  */
 public class Cube {
 
+    /**
+     * [side] -> edges of the side, each one is described by [side #1, slot #1, side #2, slot #2],
+     * where slot is the index of the edge's starting vertex in the side's list of vertices
+     */
+    private static final int[][][] SIDE_EDGES = new int[CubeGeometry.SIDES][][];
+
+    /**
+     * [vertex] -> sides, that share the vertex, and the vertex's slots in these sides
+     */
+    private static final int[][] VERTEX_SIDES = new int[CubeGeometry.VERTICES][];
+    private static final int[][] VERTEX_SLOTS = new int[CubeGeometry.VERTICES][];
+
+    /**
+     * [side][slot] -> vertex
+     */
+    private static final int[][] SIDE_VERTICES = new int[CubeGeometry.SIDES][];
+
+    private static final CubeSide[] CUBE_SIDES = CubeSide.values();
+    private static final int ALL_SIDES = (1 << CubeGeometry.SIDES) - 1;
+
+    static {
+        for (CubeSide side : CUBE_SIDES) {
+            int[][] edges = new int[4][];
+            int count = 0;
+            for (int edge = 0; edge < CubeGeometry.EDGES; edge++) {
+                CubeSide s1 = CubeGeometry.getEdgeSide(edge, 0), s2 = CubeGeometry.getEdgeSide(edge, 1);
+                if (s1 == side || s2 == side) {
+                    edges[count++] = new int[] {
+                            s1.ordinal(), CubeGeometry.getSlot(s1, CubeGeometry.getEdgeVertex(edge, 0)),
+                            s2.ordinal(), CubeGeometry.getSlot(s2, CubeGeometry.getEdgeVertex(edge, 1))
+                    };
+                }
+            }
+            SIDE_EDGES[side.ordinal()] = edges;
+
+            CubeVertex[] vertices = CubeGeometry.getVertices(side);
+            SIDE_VERTICES[side.ordinal()] = new int[vertices.length];
+            for (int slot = 0; slot < vertices.length; slot++) {
+                SIDE_VERTICES[side.ordinal()][slot] = vertices[slot].ordinal();
+            }
+        }
+
+        for (CubeVertex vertex : CubeVertex.values()) {
+            CubeSide[] sides = CubeGeometry.getSides(vertex);
+            VERTEX_SIDES[vertex.ordinal()] = new int[sides.length];
+            VERTEX_SLOTS[vertex.ordinal()] = new int[sides.length];
+            for (int i = 0; i < sides.length; i++) {
+                VERTEX_SIDES[vertex.ordinal()][i] = sides[i].ordinal();
+                VERTEX_SLOTS[vertex.ordinal()][i] = CubeGeometry.getSlot(sides[i], vertex);
+            }
+        }
+    }
+
     private final Map<CubeSide, Side> sides;
-    private final List<Side> sideList;
-    private final int sidesCount;
-    private Map<Side, SideEdges> sideEdges;
-    private Map<CubeVertex, List<Side>> vertexSides;
-
-    {
-        sides = new HashMap<>((int)(6 / 0.75));
-        sideList = new ArrayList<>(6 + 1);
-        // upper side
-        Side upperSide = new ModificationAwareSide(CubeVertex.UWN, CubeVertex.UEN, CubeVertex.UES, CubeVertex.UWS);
-        sides.put(CubeSide.UPPER, upperSide);
-        sideList.add(upperSide);
-        // bottom side
-        Side bottomSide = new ModificationAwareSide(CubeVertex.DEN, CubeVertex.DWN, CubeVertex.DWS, CubeVertex.DES);
-        sides.put(CubeSide.BOTTOM, bottomSide);
-        sideList.add(bottomSide);
-        // northern side
-        Side northernSide = new ModificationAwareSide(CubeVertex.UEN, CubeVertex.UWN, CubeVertex.DWN, CubeVertex.DEN);
-        sides.put(CubeSide.NORTHERN, northernSide);
-        sideList.add(northernSide);
-        // southern side
-        Side southernSide = new ModificationAwareSide(CubeVertex.UWS, CubeVertex.UES, CubeVertex.DES, CubeVertex.DWS);
-        sides.put(CubeSide.SOUTHERN, southernSide);
-        sideList.add(southernSide);
-        // eastern side
-        Side easternSide = new ModificationAwareSide(CubeVertex.UES, CubeVertex.UEN, CubeVertex.DEN, CubeVertex.DES);
-        sides.put(CubeSide.EASTERN, easternSide);
-        sideList.add(easternSide);
-        // western side
-        Side westernSide = new ModificationAwareSide(CubeVertex.UWN, CubeVertex.UWS, CubeVertex.DWS, CubeVertex.DWN);
-        sides.put(CubeSide.WESTERN, westernSide);
-        sideList.add(westernSide);
-
-        sidesCount = sides.size();
-
-        CubeEdge UN = new CubeEdge(upperSide, CubeVertex.UWN, northernSide, CubeVertex.UEN);
-        CubeEdge UE = new CubeEdge(upperSide, CubeVertex.UEN, easternSide, CubeVertex.UES);
-        CubeEdge UW = new CubeEdge(upperSide, CubeVertex.UWS, westernSide, CubeVertex.UWN);
-        CubeEdge US = new CubeEdge(upperSide, CubeVertex.UES, southernSide, CubeVertex.UWS);
-        CubeEdge DN = new CubeEdge(bottomSide, CubeVertex.DEN, northernSide, CubeVertex.DWN);
-        CubeEdge DE = new CubeEdge(bottomSide, CubeVertex.DES, easternSide, CubeVertex.DEN);
-        CubeEdge DW = new CubeEdge(bottomSide, CubeVertex.DWN, westernSide, CubeVertex.DWS);
-        CubeEdge DS = new CubeEdge(bottomSide, CubeVertex.DWS, southernSide, CubeVertex.DES);
-        CubeEdge ES = new CubeEdge(easternSide, CubeVertex.DES, southernSide, CubeVertex.UES);
-        CubeEdge EN = new CubeEdge(easternSide, CubeVertex.UEN, northernSide, CubeVertex.DEN);
-        CubeEdge WS = new CubeEdge(westernSide, CubeVertex.UWS, southernSide, CubeVertex.DWS);
-        CubeEdge WN = new CubeEdge(westernSide, CubeVertex.DWN, northernSide, CubeVertex.UWN);
-
-        sideEdges = new HashMap<>((int)(4 / 0.75));
-        sideEdges.put(upperSide, new SideEdges(UN, UE, UW, US));
-        sideEdges.put(bottomSide, new SideEdges(DN, DE, DW, DS));
-        sideEdges.put(northernSide, new SideEdges(UN, DN, EN, WN));
-        sideEdges.put(southernSide, new SideEdges(US, DS, ES, WS));
-        sideEdges.put(easternSide, new SideEdges(UE, DE, ES, EN));
-        sideEdges.put(westernSide, new SideEdges(UW, DW, WS, WN));
-
-        vertexSides = new HashMap<>((int)(8 / 0.75));
-        vertexSides.put(CubeVertex.UWN, Arrays.asList(upperSide, westernSide, northernSide));
-        vertexSides.put(CubeVertex.UEN, Arrays.asList(upperSide, easternSide, northernSide));
-        vertexSides.put(CubeVertex.UWS, Arrays.asList(upperSide, westernSide, southernSide));
-        vertexSides.put(CubeVertex.UES, Arrays.asList(upperSide, easternSide, southernSide));
-        vertexSides.put(CubeVertex.DWN, Arrays.asList(bottomSide, westernSide, northernSide));
-        vertexSides.put(CubeVertex.DEN, Arrays.asList(bottomSide, easternSide, northernSide));
-        vertexSides.put(CubeVertex.DWS, Arrays.asList(bottomSide, westernSide, southernSide));
-        vertexSides.put(CubeVertex.DES, Arrays.asList(bottomSide, easternSide, southernSide));
+
+    private final CompatibilityTable compatibilityTable;
+
+    /**
+     * Faces, that occupy the sides; null for unoccupied sides
+     */
+    private final Face[] faces;
+
+    /**
+     * Indices of the faces in the compatibility table (if there is one)
+     */
+    private final int[] faceIndices;
+
+    /**
+     * Orientations of the faces, see {@link Orientation}
+     */
+    private final int[] orientations;
+
+    /**
+     * k-th bit is set, if the side with ordinal k is occupied
+     */
+    private int occupiedSides;
+
+    private final int[] placements;
+
+    public Cube() {
+        this(null);
+    }
+
+    /**
+     * @param compatibilityTable Precomputed table, that will be used for checking the edges.
+     *                           Only the faces from this table can be put in this cube.
+     */
+    public Cube(CompatibilityTable compatibilityTable) {
+
+        this.compatibilityTable = compatibilityTable;
+        this.faces = new Face[CubeGeometry.SIDES];
+        this.faceIndices = new int[CubeGeometry.SIDES];
+        this.orientations = new int[CubeGeometry.SIDES];
+        this.placements = new int[CubeGeometry.SIDES];
+
+        Map<CubeSide, Side> sides = new HashMap<>((int)(6 / 0.75));
+        for (CubeSide side : CUBE_SIDES) {
+            sides.put(side, new CubeSideView(side));
+        }
+        this.sides = Collections.unmodifiableMap(sides);
+    }
+
+    /**
+     * @return Table, that is used for checking the edges, or null if this cube checks the faces directly
+     */
+    public CompatibilityTable getCompatibilityTable() {
+        return compatibilityTable;
     }
 
+    /**
+     * @return Views of the sides, that reflect the current state of this cube
+     */
     public Map<CubeSide, Side> getSides() {
         return sides;
     }
 
     public boolean isConnected() {
+        return isConnected((SearchCounters) null);
+    }
+
+    /**
+     * Same as {@link #isConnected()}
+     *
+     * @param counters Counters of edge checks, may be null; edges are counted only if the cube has a compatibility table
+     */
+    boolean isConnected(SearchCounters counters) {
 
         if (!isComplete()) {
             throw new IllegalStateException("Cube is not complete");
         }
 
-        for (Side side : sideList) {
-            if (!sideEdges.get(side).isConnected()) {
+        if (compatibilityTable != null) {
+            return compatibilityTable.isConnected(collectPlacements(), counters);
+        }
+
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            if (!isConnected(side)) {
                 return false;
             }
         }
@@ -116,21 +176,171 @@ public class Cube {
     }
 
     /**
-     * @return true, if all sides are occupied by faces
+     * Check the edges between the given side and all adjacent sides, that are occupied.
+     * Vertices, that are shared with some unoccupied side, are considered to be connected,
+     * because the missing plug may yet be provided by the face, that will occupy that side.
+     *
+     * If this method returns true for each side, when occupying the sides one by one,
+     * then the complete cube is connected.
+     *
+     * @return true, if the face occupying the given side can be connected with all adjacent faces
      */
-    public boolean isComplete() {
+    public boolean isConnected(CubeSide side) {
 
-        for (Side side : sideList) {
-            if (!((ModificationAwareSide)side).isOccupied()) {
+        if (!isOccupied(side.ordinal())) {
+            throw new IllegalStateException("Side is unoccupied: " + side.name());
+        }
+
+        if (compatibilityTable != null) {
+            return compatibilityTable.isConnected(collectPlacements(), side);
+        }
+        return isConnected(side.ordinal());
+    }
+
+    private boolean isConnected(int side) {
+        for (int[] edge : SIDE_EDGES[side]) {
+            // edges with unoccupied sides are checked later, when those sides become occupied
+            if (isOccupied(edge[0]) && isOccupied(edge[2]) && !canConnect(edge[0], edge[1], edge[2], edge[3])) {
                 return false;
             }
         }
         return true;
     }
 
+    private boolean canConnect(int s1, int slot1, int s2, int slot2) {
+
+        Edge e1 = getEdge(s1, slot1);
+        Edge e2 = getEdge(s2, slot2);
+
+        // sanity check
+        if (e1.getSize() != e2.getSize()) {
+            throw new IllegalStateException("Invalid cube configuration: edges have different lengths");
+        }
+
+        int edgeSize = e1.getSize();
+
+        // if two sides can connect in straight position,
+        // then they will also connect in flipped position
+        long[] plugs1 = isFlipped(s1)? e1.getPlugWordsReverse() : e1.getPlugWords();
+        long[] plugs2 = isFlipped(s2)? e2.getPlugWords() : e2.getPlugWordsReverse();
+
+        // one point should be a plug and another should be a socket,
+        // except for the corners, where both edges may have sockets
+        if (!EdgeMask.canConnect(plugs1, 0, plugs2, 0, edgeSize)) {
+            return false;
+        }
+
+        // special case here: cube's vertex
+        // even if compared face's edges both have sockets,
+        // there's still two adjacent cube's edges,
+        // that might have a plug in this point
+        // -- need to check
+        boolean firstCornerPlug = EdgeMask.isPlug(plugs1, 0, 0) || EdgeMask.isPlug(plugs2, 0, 0),
+                lastCornerPlug = EdgeMask.isPlug(plugs1, 0, edgeSize - 1) || EdgeMask.isPlug(plugs2, 0, edgeSize - 1);
+        return (firstCornerPlug || hasPlug(SIDE_VERTICES[s1][slot1]))
+                && (lastCornerPlug || hasPlug(SIDE_VERTICES[s2][slot2]));
+    }
+
+    private boolean hasPlug(int vertex) {
+
+        int[] vertexSides = VERTEX_SIDES[vertex], vertexSlots = VERTEX_SLOTS[vertex];
+        for (int i = 0; i < vertexSides.length; i++) {
+            int side = vertexSides[i];
+            if (!isOccupied(side)) {
+                return true;
+            }
+            Edge edge = getEdge(side, vertexSlots[i]);
+            long[] plugs = isFlipped(side)? edge.getPlugWordsReverse() : edge.getPlugWords();
+            if ((plugs[0] & 1L) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Edge of the face at the given side, that starts with the vertex at the given slot
+     */
+    private Edge getEdge(int side, int slot) {
+        return faces[side].getEdges().get(CubeGeometry.getFaceEdgeIndex(orientations[side], slot));
+    }
+
+    private boolean isFlipped(int side) {
+        return Orientation.isFlipped(orientations[side]);
+    }
+
+    private boolean isOccupied(int side) {
+        return (occupiedSides & (1 << side)) != 0;
+    }
+
+    /**
+     * @return Packed representation of this cube, see {@link Solution}
+     * @throws IllegalStateException if the cube is not complete or has no compatibility table
+     */
+    long getSolution() {
+
+        if (compatibilityTable == null) {
+            throw new IllegalStateException("Cube has no compatibility table");
+        }
+        if (!isComplete()) {
+            throw new IllegalStateException("Cube is not complete");
+        }
+        return Solution.pack(collectPlacements());
+    }
+
+    /**
+     * Occupy all sides according to the packed solution (see {@link Solution})
+     *
+     * @throws IllegalStateException if the cube has no compatibility table
+     */
+    void setSolution(long solution) {
+
+        if (compatibilityTable == null) {
+            throw new IllegalStateException("Cube has no compatibility table");
+        }
+        List<Face> tableFaces = compatibilityTable.getFaces();
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            int placement = Solution.getPlacement(solution, side);
+            faceIndices[side] = CompatibilityTable.getFaceIndex(placement);
+            faces[side] = tableFaces.get(faceIndices[side]);
+            orientations[side] = CompatibilityTable.getOrientation(placement);
+        }
+        occupiedSides = ALL_SIDES;
+    }
+
+    /**
+     * @return true, if identical faces occupy the sides in the order of their indices
+     *         (see {@link FaceSymmetry#isCanonical(int[])}), or if the cube has no compatibility table
+     */
+    boolean hasCanonicalFaceOrder() {
+        return compatibilityTable == null || compatibilityTable.getFaceSymmetry().isCanonical(faceIndices);
+    }
+
+    private int[] collectPlacements() {
+
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            placements[side] = isOccupied(side)?
+                    CompatibilityTable.placement(faceIndices[side], orientations[side]) : -1;
+        }
+        return placements;
+    }
+
+    /**
+     * @return true, if all sides are occupied by faces
+     */
+    public boolean isComplete() {
+        return occupiedSides == ALL_SIDES;
+    }
+
+    /**
+     * @return true, if the side is occupied by a face
+     */
+    boolean isOccupied(CubeSide side) {
+        return isOccupied(side.ordinal());
+    }
+
     /**
-     * Visit all 8^6 or 4^6 possible rotations of this cube
-     * (in case when flips are enabled or disabled, respectively)
+     * Visit all 8^6 possible rotations of this cube (all 8 orientations of each side, see {@link Orientation})
      *
      * When this routine returns, the cube will in the same state
      * as it was prior to calling the routine.
@@ -141,151 +351,158 @@ public class Cube {
             throw new IllegalStateException("Can't visit rotations: cube is not complete");
         }
 
-        visitRotations(visitor, sideList, 0);
+        visitSideRotations(visitor, 0, null, null, null);
+    }
+
+    /**
+     * Same as {@link #visitRotations(CubeVisitor)}, but only one orientation
+     * out of each set of orientations of a face, that look the same, is visited,
+     * see {@link FaceSymmetry#isRepresentative(int)}. The cube must have a compatibility table.
+     *
+     * The first fixedCount sides (in the order of {@link CubeSide} constants) are kept in their current position,
+     * and the remaining rotations are skipped, as soon as the search is stopped by the given control (if it's not null).
+     *
+     * @param counters Counters of skipped orientations, may be null
+     */
+    void visitDistinctRotations(CubeVisitor visitor, int fixedCount, SearchControl control, SearchCounters counters) {
+
+        if (!isComplete()) {
+            throw new IllegalStateException("Can't visit rotations: cube is not complete");
+        }
+        if (compatibilityTable == null) {
+            throw new IllegalStateException("Cube has no compatibility table");
+        }
+
+        FaceSymmetry symmetry = compatibilityTable.getFaceSymmetry();
+        visitSideRotations(visitor, fixedCount, control, symmetry.isTrivial()? null : symmetry, counters);
     }
 
-    private void visitRotations(CubeVisitor visitor, List<Side> sideList, int fixedCount) {
+    /**
+     * @param symmetry If not null, only representative orientations are visited
+     */
+    private void visitSideRotations(CubeVisitor visitor, int side, SearchControl control, FaceSymmetry symmetry,
+                                    SearchCounters counters) {
+
+        if (control != null && control.isStopped()) {
+            // sides, that are being rotated, still return to their initial positions in the loop below
+            return;
+        }
 
-        if (fixedCount == sidesCount) {
+        if (side == CubeGeometry.SIDES) {
             visitor.visit(this);
         } else {
 
-            ModificationAwareSide side = (ModificationAwareSide) sideList.get(fixedCount);
+            int orientation = orientations[side];
+            int rotationFactor = Orientation.getRotationFactor(orientation);
+            boolean flipped = Orientation.isFlipped(orientation);
             for (int i = 0; i < 4; i++) {
-                visitRotations(visitor, sideList, fixedCount + 1); // initial position, if i = 0
-                side.flip();
-                visitRotations(visitor, sideList, fixedCount + 1);
-                side.flip();
-
-                side.rotate(); // return to initial position, if i = 3
+                orientations[side] = Orientation.of((rotationFactor + i) % 4, flipped); // initial position, if i = 0
+                visitSideRotation(visitor, side, control, symmetry, counters);
+                orientations[side] = Orientation.of((rotationFactor + i) % 4, !flipped);
+                visitSideRotation(visitor, side, control, symmetry, counters);
             }
+            orientations[side] = orientation;
         }
     }
 
-    public void setFace(CubeSide side, Face face) {
-        ((ModificationAwareSide)sides.get(side)).setFace(face);
+    private void visitSideRotation(CubeVisitor visitor, int side, SearchControl control, FaceSymmetry symmetry,
+                                   SearchCounters counters) {
+        if (symmetry == null
+                || symmetry.isRepresentative(CompatibilityTable.placement(faceIndices[side], orientations[side]))) {
+            visitSideRotations(visitor, side + 1, control, symmetry, counters);
+        } else if (counters != null) {
+            counters.onDuplicate();
+        }
     }
 
-    public void removeFace(CubeSide side) {
-        ((ModificationAwareSide)sides.get(side)).removeFace();
+    public void setFace(CubeSide side, Face face) {
+        // face is always connected to the same vertex
+        // (defined by creator of DefaultEdge instance)
+        setFace(side, face, 0, false);
     }
 
-    private class ModificationAwareSide extends DefaultSide {
+    void setFace(CubeSide side, Face face, int rotationFactor, boolean flipped) {
+        updateFaceIndex(side, face);
+        faces[side.ordinal()] = face;
+        orientations[side.ordinal()] = Orientation.of(rotationFactor, flipped);
+        occupiedSides |= 1 << side.ordinal();
+    }
 
-        /**
-         * @param vertices List of vertices in traversal order.
-         */
-        ModificationAwareSide(CubeVertex... vertices) {
-            super(Arrays.asList(vertices));
-        }
+    private void updateFaceIndex(CubeSide side, Face face) {
 
-        @Override
-        protected void setFace(Face face) {
-            super.setFace(face);
-        }
-
-        protected void rotate() {
-            super.rotate();
+        if (compatibilityTable != null) {
+            int faceIndex = compatibilityTable.indexOf(face);
+            if (faceIndex < 0) {
+                throw new IllegalArgumentException("Face is missing in the compatibility table: " + face);
+            }
+            faceIndices[side.ordinal()] = faceIndex;
         }
+    }
 
-        protected void flip() {
-            super.flip();
-        }
+    public void removeFace(CubeSide side) {
+        faces[side.ordinal()] = null;
+        occupiedSides &= ~(1 << side.ordinal());
     }
 
-    private class CubeEdge {
+    /**
+     * Read-only view of a side, backed by the state of the cube
+     */
+    private class CubeSideView implements Side {
 
-        private Side s1, s2;
-        private CubeVertex v1, v2;
+        private final int side;
+        private final List<CubeVertex> vertices;
 
-        /**
-         * @param s1 Side #1
-         * @param v1 Starting vertex of an edge between s1 and s2, when traversing s1 clockwise.
-         * @param s2 Side #2
-         * @param v2 Starting vertex of an edge between s2 and s1, when traversing s2 clockwise.
-         */
-        CubeEdge(Side s1, CubeVertex v1, Side s2, CubeVertex v2) {
-            this.s1 = s1;
-            this.s2 = s2;
-            this.v1 = v1;
-            this.v2 = v2;
+        CubeSideView(CubeSide side) {
+            this.side = side.ordinal();
+            this.vertices = Collections.unmodifiableList(Arrays.asList(CubeGeometry.getVertices(side)));
         }
 
-        boolean isConnected() {
-            return canConnect(s1, s2);
+        @Override
+        public int getRotationFactor() {
+            checkOccupied("Failed to get rotation factor");
+            return Orientation.getRotationFactor(orientations[side]);
         }
 
-        private boolean canConnect(Side s1, Side s2) {
+        @Override
+        public boolean isFlipped() {
+            checkOccupied("Failed to get flip factor");
+            return Orientation.isFlipped(orientations[side]);
+        }
 
-            Edge e1 = s1.getEdge(v1);
-            Edge e2 = s2.getEdge(v2);
+        @Override
+        public Face getFace() {
+            return faces[side];
+        }
 
-            // sanity check
-            if (e1.getSize() != e2.getSize()) {
-                throw new IllegalStateException("Invalid cube configuration: edges have different lengths");
-            }
+        /**
+         * @return Edge of the occupying face, that begins with the specified vertex.
+         * @throws IllegalStateException if side is unoccupied.
+         */
+        @Override
+        public Edge getEdge(CubeVertex vertex) {
 
-            // if two sides can connect in straight position,
-            // then they will also connect in flipped position
-            byte[] iter1 = s1.isFlipped()? e1.getPointsReverse() : e1.getPoints();
-            byte[] iter2 = s2.isFlipped()? e2.getPoints() : e2.getPointsReverse();
-
-            int edgeSize = e1.getSize();
-            int i = 0;
-            for (int k = 0; k < iter1.length; k++) {
-                // check that one point is a plug and another is a socket
-                byte p1 = iter1[k], p2 = iter2[k];
-                if (p1 == p2) {
-                    if (p1 == 0 && ((i == 0) || (i == edgeSize-1))) {
-                        // special case here: cube's vertex
-                        // even if compared face's edges both have sockets,
-                        // there's still two adjacent cube's edges,
-                        // that might have a plug in this point
-                        // -- need to check
-                        CubeVertex vertex = (i == 0)? v1 : v2;
-                        boolean hasPlug = false;
-                        for (Side side : vertexSides.get(vertex)) {
-                            Edge edge = side.getEdge(vertex);
-                            byte[] iter = side.isFlipped()? edge.getPointsReverse() : edge.getPoints();
-                            hasPlug = iter[0] == 1;
-                            if (hasPlug) {
-                                break;
-                            }
-                        }
-                        if (!hasPlug) {
-                            return false;
-                        }
-                    } else {
-                        return false;
-                    }
-                }
-                i++;
+            int slot = CubeGeometry.getSlot(CUBE_SIDES[side], vertex);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Side does not have a vertex: " + vertex.name());
             }
-            return true;
+            checkOccupied("Failed to get edge");
+            return Cube.this.getEdge(side, slot);
         }
-    }
-
-    private static class SideEdges {
-
-        private boolean isConnected;
-        private CubeEdge[] cubeEdges;
 
-        SideEdges(CubeEdge... cubeEdges) {
-            this.cubeEdges = cubeEdges;
+        @Override
+        public boolean hasVertex(CubeVertex vertex) {
+            return CubeGeometry.getSlot(CUBE_SIDES[side], vertex) >= 0;
         }
 
-        public boolean isConnected() {
+        @Override
+        public List<CubeVertex> getVertices() {
+            return vertices;
+        }
 
-            boolean isConnected = this.isConnected;
-            for (CubeEdge cubeEdge : cubeEdges) {
-                isConnected = cubeEdge.isConnected();
-                if (!isConnected) {
-                    break;
-                }
+        private void checkOccupied(String message) {
+            if (!isOccupied(side)) {
+                throw new IllegalStateException(message + ": side is unoccupied");
             }
-
-            this.isConnected = isConnected;
-            return isConnected;
         }
     }
 }
@@ -0,0 +1,165 @@
+package example;
+
+import java.util.Arrays;
+
+/**
+ * Static tables, that describe the topology of a cube.
+ * All tables are indexed by ordinals of {@link CubeSide} and {@link CubeVertex}.
+ */
+final class CubeGeometry {
+
+    static final int SIDES = CubeSide.values().length;
+    static final int VERTICES = CubeVertex.values().length;
+    static final int EDGES = 12;
+
+    /**
+     * Vertices of each side in traversal order
+     * (clockwise, when looking at the side from outside of the cube)
+     */
+    private static final CubeVertex[][] SIDE_VERTICES = new CubeVertex[SIDES][];
+
+    /**
+     * Each edge is shared by two sides. For each side, the edge starts with a different vertex,
+     * when traversing this side clockwise.
+     */
+    private static final CubeSide[][] EDGE_SIDES = new CubeSide[EDGES][];
+    private static final CubeVertex[][] EDGE_VERTICES = new CubeVertex[EDGES][];
+
+    /**
+     * Index of the edge between two sides, or -1 if the sides are not adjacent
+     */
+    private static final int[][] EDGE_INDICES = new int[SIDES][SIDES];
+
+    /**
+     * Index of the vertex in the side's list of vertices, or -1 if the side does not have the vertex
+     */
+    private static final int[][] SLOTS = new int[SIDES][VERTICES];
+
+    private static final CubeSide[][] VERTEX_SIDES = new CubeSide[VERTICES][];
+
+    /**
+     * [orientation][slot] -> index of the face's edge, that starts with the vertex at the given slot of a side,
+     * when the face is put on the side in the given orientation (see {@link Orientation})
+     */
+    private static final int[][] FACE_EDGES = new int[Orientation.COUNT][4];
+
+    static {
+        SIDE_VERTICES[CubeSide.UPPER.ordinal()] =
+                new CubeVertex[] {CubeVertex.UWN, CubeVertex.UEN, CubeVertex.UES, CubeVertex.UWS};
+        SIDE_VERTICES[CubeSide.BOTTOM.ordinal()] =
+                new CubeVertex[] {CubeVertex.DEN, CubeVertex.DWN, CubeVertex.DWS, CubeVertex.DES};
+        SIDE_VERTICES[CubeSide.NORTHERN.ordinal()] =
+                new CubeVertex[] {CubeVertex.UEN, CubeVertex.UWN, CubeVertex.DWN, CubeVertex.DEN};
+        SIDE_VERTICES[CubeSide.SOUTHERN.ordinal()] =
+                new CubeVertex[] {CubeVertex.UWS, CubeVertex.UES, CubeVertex.DES, CubeVertex.DWS};
+        SIDE_VERTICES[CubeSide.EASTERN.ordinal()] =
+                new CubeVertex[] {CubeVertex.UES, CubeVertex.UEN, CubeVertex.DEN, CubeVertex.DES};
+        SIDE_VERTICES[CubeSide.WESTERN.ordinal()] =
+                new CubeVertex[] {CubeVertex.UWN, CubeVertex.UWS, CubeVertex.DWS, CubeVertex.DWN};
+
+        int i = 0;
+        addEdge(i++, CubeSide.UPPER, CubeVertex.UWN, CubeSide.NORTHERN, CubeVertex.UEN);
+        addEdge(i++, CubeSide.UPPER, CubeVertex.UEN, CubeSide.EASTERN, CubeVertex.UES);
+        addEdge(i++, CubeSide.UPPER, CubeVertex.UWS, CubeSide.WESTERN, CubeVertex.UWN);
+        addEdge(i++, CubeSide.UPPER, CubeVertex.UES, CubeSide.SOUTHERN, CubeVertex.UWS);
+        addEdge(i++, CubeSide.BOTTOM, CubeVertex.DEN, CubeSide.NORTHERN, CubeVertex.DWN);
+        addEdge(i++, CubeSide.BOTTOM, CubeVertex.DES, CubeSide.EASTERN, CubeVertex.DEN);
+        addEdge(i++, CubeSide.BOTTOM, CubeVertex.DWN, CubeSide.WESTERN, CubeVertex.DWS);
+        addEdge(i++, CubeSide.BOTTOM, CubeVertex.DWS, CubeSide.SOUTHERN, CubeVertex.DES);
+        addEdge(i++, CubeSide.EASTERN, CubeVertex.DES, CubeSide.SOUTHERN, CubeVertex.UES);
+        addEdge(i++, CubeSide.EASTERN, CubeVertex.UEN, CubeSide.NORTHERN, CubeVertex.DEN);
+        addEdge(i++, CubeSide.WESTERN, CubeVertex.UWS, CubeSide.SOUTHERN, CubeVertex.DWS);
+        addEdge(i, CubeSide.WESTERN, CubeVertex.DWN, CubeSide.NORTHERN, CubeVertex.UWN);
+
+        for (int[] row : EDGE_INDICES) {
+            Arrays.fill(row, -1);
+        }
+        for (int edge = 0; edge < EDGES; edge++) {
+            int s1 = EDGE_SIDES[edge][0].ordinal(), s2 = EDGE_SIDES[edge][1].ordinal();
+            EDGE_INDICES[s1][s2] = EDGE_INDICES[s2][s1] = edge;
+        }
+
+        int[] vertexSideCounts = new int[VERTICES];
+        for (CubeVertex vertex : CubeVertex.values()) {
+            VERTEX_SIDES[vertex.ordinal()] = new CubeSide[3];
+        }
+        for (CubeSide side : CubeSide.values()) {
+            Arrays.fill(SLOTS[side.ordinal()], -1);
+            CubeVertex[] vertices = SIDE_VERTICES[side.ordinal()];
+            for (int slot = 0; slot < vertices.length; slot++) {
+                int vertex = vertices[slot].ordinal();
+                SLOTS[side.ordinal()][vertex] = slot;
+                VERTEX_SIDES[vertex][vertexSideCounts[vertex]++] = side;
+            }
+        }
+    }
+
+    static {
+        for (int orientation = 0; orientation < Orientation.COUNT; orientation++) {
+            for (int slot = 0; slot < 4; slot++) {
+                // if the face is not rotated, then the edge's index is just the slot;
+                // flipped face is traversed in reverse order
+                int edgeIndex = (4 - Orientation.getRotationFactor(orientation) + slot) % 4;
+                FACE_EDGES[orientation][slot] = Orientation.isFlipped(orientation)? 3 - edgeIndex : edgeIndex;
+            }
+        }
+    }
+
+    private static void addEdge(int edge, CubeSide s1, CubeVertex v1, CubeSide s2, CubeVertex v2) {
+        EDGE_SIDES[edge] = new CubeSide[] {s1, s2};
+        EDGE_VERTICES[edge] = new CubeVertex[] {v1, v2};
+    }
+
+    private CubeGeometry() {
+    }
+
+    /**
+     * @return Vertices of the side in traversal order
+     */
+    static CubeVertex[] getVertices(CubeSide side) {
+        return SIDE_VERTICES[side.ordinal()].clone();
+    }
+
+    /**
+     * @return Side #1 (index 0) or side #2 (index 1) of the edge
+     */
+    static CubeSide getEdgeSide(int edge, int index) {
+        return EDGE_SIDES[edge][index];
+    }
+
+    /**
+     * @return Starting vertex of the edge, when traversing side #1 (index 0) or side #2 (index 1) clockwise
+     */
+    static CubeVertex getEdgeVertex(int edge, int index) {
+        return EDGE_VERTICES[edge][index];
+    }
+
+    /**
+     * @return Index of the edge between two sides, or -1 if the sides are not adjacent
+     */
+    static int getEdgeIndex(CubeSide s1, CubeSide s2) {
+        return EDGE_INDICES[s1.ordinal()][s2.ordinal()];
+    }
+
+    /**
+     * @return Index of the vertex in the side's list of vertices, or -1 if the side does not have the vertex
+     */
+    static int getSlot(CubeSide side, CubeVertex vertex) {
+        return SLOTS[side.ordinal()][vertex.ordinal()];
+    }
+
+    /**
+     * @return Three sides, that share the vertex
+     */
+    static CubeSide[] getSides(CubeVertex vertex) {
+        return VERTEX_SIDES[vertex.ordinal()].clone();
+    }
+
+    /**
+     * @return Index of the face's edge (see {@link Face#getEdges()}), that starts with the vertex
+     *         at the given slot of a side, when the face is put on the side in the given orientation
+     */
+    static int getFaceEdgeIndex(int orientation, int slot) {
+        return FACE_EDGES[orientation][slot];
+    }
+}
@@ -0,0 +1,209 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Spatial symmetries of a cube: 24 rotations and 24 reflections (rotations combined with a mirror reflection).
+ *
+ * Applying a symmetry to a solution moves each face to another side and changes its orientation,
+ * but the result is still a solution: it's the same assembled cube, viewed from another angle
+ * (or, in case of reflections, its mirror image, made of the same faces flipped over).
+ *
+ * Symmetries are numbered from 0 to 47; the first 24 are rotations, and the first one is the identity.
+ * All symmetries are derived from coordinates of the cube's vertices.
+ */
+final class CubeSymmetry {
+
+    static final int ROTATIONS = 24;
+    static final int SYMMETRIES = 48;
+
+    /**
+     * [symmetry][side] -> side, where the face from the given side is moved
+     */
+    private static final int[][] SIDES = new int[SYMMETRIES][CubeGeometry.SIDES];
+
+    /**
+     * [symmetry][side][orientation] -> orientation of the face, after it's been moved to another side
+     */
+    private static final int[][][] ORIENTATIONS = new int[SYMMETRIES][CubeGeometry.SIDES][Orientation.COUNT];
+
+    static {
+        int rotations = 0, reflections = ROTATIONS;
+        for (int[] matrix : collectMatrices()) {
+            int symmetry = (determinant(matrix) > 0)? rotations++ : reflections++;
+            init(symmetry, matrix);
+        }
+    }
+
+    /**
+     * @return All 48 signed permutation matrices (3x3, row-major), the identity matrix goes first
+     */
+    private static List<int[]> collectMatrices() {
+
+        int[][] permutations = new int[][] {{0,1,2}, {0,2,1}, {1,0,2}, {1,2,0}, {2,0,1}, {2,1,0}};
+        List<int[]> matrices = new ArrayList<>(SYMMETRIES + 1);
+        for (int[] permutation : permutations) {
+            for (int signs = 0; signs < 8; signs++) {
+                int[] matrix = new int[9];
+                for (int row = 0; row < 3; row++) {
+                    matrix[row * 3 + permutation[row]] = ((signs >> row) & 1) == 0? 1 : -1;
+                }
+                matrices.add(matrix);
+            }
+        }
+        return matrices;
+    }
+
+    private static int determinant(int[] m) {
+        return m[0] * (m[4] * m[8] - m[5] * m[7])
+                - m[1] * (m[3] * m[8] - m[5] * m[6])
+                + m[2] * (m[3] * m[7] - m[4] * m[6]);
+    }
+
+    private static void init(int symmetry, int[] matrix) {
+
+        CubeVertex[] vertexMapping = new CubeVertex[CubeGeometry.VERTICES];
+        for (CubeVertex vertex : CubeVertex.values()) {
+            vertexMapping[vertex.ordinal()] = toVertex(multiply(matrix, toCoordinates(vertex)));
+        }
+
+        for (CubeSide side : CubeSide.values()) {
+
+            CubeVertex[] vertices = CubeGeometry.getVertices(side);
+            CubeSide movedSide = findSide(vertexMapping[vertices[0].ordinal()], vertexMapping[vertices[2].ordinal()]);
+            SIDES[symmetry][side.ordinal()] = movedSide.ordinal();
+
+            for (int orientation = 0; orientation < Orientation.COUNT; orientation++) {
+                // find, where the first two vertices of the face end up
+                int slot0 = getSlot(orientation, 0), slot1 = getSlot(orientation, 1);
+                int movedSlot0 = CubeGeometry.getSlot(movedSide, vertexMapping[vertices[slot0].ordinal()]),
+                    movedSlot1 = CubeGeometry.getSlot(movedSide, vertexMapping[vertices[slot1].ordinal()]);
+
+                boolean flipped = movedSlot1 != (movedSlot0 + 1) % 4;
+                ORIENTATIONS[symmetry][side.ordinal()][orientation] = Orientation.of(movedSlot0, flipped);
+            }
+        }
+    }
+
+    /**
+     * @return Index of the side's vertex, that is occupied by the given vertex of the face
+     *         (see {@link DefaultSide#getEdge(CubeVertex)})
+     */
+    private static int getSlot(int orientation, int faceVertex) {
+        int rotationFactor = Orientation.getRotationFactor(orientation);
+        return Orientation.isFlipped(orientation)?
+                (rotationFactor - faceVertex + 4) % 4 : (rotationFactor + faceVertex) % 4;
+    }
+
+    /**
+     * @return Side, that has both of the given (diagonally opposite) vertices
+     */
+    private static CubeSide findSide(CubeVertex v1, CubeVertex v2) {
+        for (CubeSide side : CubeSide.values()) {
+            if (CubeGeometry.getSlot(side, v1) >= 0 && CubeGeometry.getSlot(side, v2) >= 0) {
+                return side;
+            }
+        }
+        throw new IllegalStateException("No side has both vertices: " + v1.name() + ", " + v2.name());
+    }
+
+    /**
+     * @return Coordinates of the vertex: x (west to east), y (south to north), z (down to up)
+     */
+    private static int[] toCoordinates(CubeVertex vertex) {
+        String name = vertex.name();
+        return new int[] {
+                name.indexOf('E') >= 0? 1 : -1,
+                name.indexOf('N') >= 0? 1 : -1,
+                name.indexOf('U') >= 0? 1 : -1
+        };
+    }
+
+    private static CubeVertex toVertex(int[] coordinates) {
+        return CubeVertex.valueOf((coordinates[2] > 0? "U" : "D") + (coordinates[0] > 0? "E" : "W")
+                + (coordinates[1] > 0? "N" : "S"));
+    }
+
+    private static int[] multiply(int[] matrix, int[] vector) {
+        int[] result = new int[3];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                result[row] += matrix[row * 3 + col] * vector[col];
+            }
+        }
+        return result;
+    }
+
+    private CubeSymmetry() {
+    }
+
+    /**
+     * @return Side, where the face from the given side is moved by the symmetry
+     */
+    static CubeSide moveSide(int symmetry, CubeSide side) {
+        return CubeSide.values()[SIDES[symmetry][side.ordinal()]];
+    }
+
+    /**
+     * @return Orientation of the face from the given side, after it's been moved by the symmetry
+     */
+    static int moveOrientation(int symmetry, CubeSide side, int orientation) {
+        return ORIENTATIONS[symmetry][side.ordinal()][orientation];
+    }
+
+    /**
+     * @param includeReflections Whether reflections should be included
+     * @return Symmetries, that keep the given side in place (rotations go first)
+     */
+    static int[] getStabilizer(CubeSide side, boolean includeReflections) {
+
+        int symmetries = includeReflections? SYMMETRIES : ROTATIONS;
+        int[] stabilizer = new int[symmetries];
+        int count = 0;
+        for (int symmetry = 0; symmetry < symmetries; symmetry++) {
+            if (SIDES[symmetry][side.ordinal()] == side.ordinal()) {
+                stabilizer[count++] = symmetry;
+            }
+        }
+        return Arrays.copyOf(stabilizer, count);
+    }
+
+    /**
+     * When some face is fixed at the upper side, the only symmetries, that keep it there,
+     * are 4 rotations around the vertical axis (which change the face's rotation factor)
+     * and 4 reflections in the vertical planes (which also flip the face).
+     * So all solutions with this face on top are symmetric to exactly one solution,
+     * where the face is not rotated (and not flipped, if mirror images are considered symmetric).
+     *
+     * @param includeReflections Whether mirror images should be considered symmetric
+     * @return Number of the first orientations (see {@link Orientation}) of the face at the upper side,
+     *         that produce all non-symmetric solutions
+     */
+    static int getAnchorOrientations(boolean includeReflections) {
+        return includeReflections? 1 : 2;
+    }
+
+    /**
+     * @return Ordinal of the side, where the symmetry moves the face from the given side
+     */
+    static int getMovedSide(int symmetry, int side) {
+        return SIDES[symmetry][side];
+    }
+
+    /**
+     * @return Solution (see {@link Solution}), that is obtained by applying the symmetry to the given solution
+     */
+    static long apply(int symmetry, long solution) {
+
+        long result = 0;
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            int placement = Solution.getPlacement(solution, side);
+            int movedPlacement = CompatibilityTable.placement(CompatibilityTable.getFaceIndex(placement),
+                    ORIENTATIONS[symmetry][side][CompatibilityTable.getOrientation(placement)]);
+            result |= (long) movedPlacement << (SIDES[symmetry][side] * Solution.BITS_PER_SIDE);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,287 @@
+package example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solves the puzzle as an exact cover problem with Knuth's Algorithm X and dancing links:
+ * each side must be covered by exactly one face, and each face must be used exactly once.
+ *
+ * The matrix has a column for each side and a column for each face, and a row for each placement
+ * of a face on a side (see {@link CompatibilityTable}). The first face is fixed at the upper side,
+ * in the first orientations only (see {@link CubeSymmetry#getAnchorOrientations(boolean)}),
+ * and orientations of a face, that look the same, are represented by a single row (see {@link FaceSymmetry}).
+ *
+ * Edges are not a part of the exact cover: when a row is chosen, its placement is checked against
+ * the adjacent occupied sides, and the branch is dropped, if some edge can't be connected.
+ * The column with the fewest remaining rows is covered first, so the search goes to the most constrained side
+ * or face regardless of the order of the sides.
+ *
+ * Matrix is kept in flat arrays of links, node 0 being the root and nodes 1..N being the column headers.
+ */
+class DancingLinksSolver implements SearchEngine {
+
+    private static final int ROOT = 0;
+
+    private static final CubeSide[] CUBE_SIDES = CubeSide.values();
+
+    private final CompatibilityTable table;
+    private final List<Face> faces;
+    private final FaceSymmetry symmetry;
+    private final SearchControl control;
+    private final SearchCounters counters;
+    private final ProgressTracker progress;
+
+    private final int[] left, right, up, down;
+
+    /**
+     * [node] -> column header
+     */
+    private final int[] columns;
+
+    /**
+     * [column header] -> number of rows in the column
+     */
+    private final int[] sizes;
+
+    /**
+     * [node] -> placement of the row, that contains the node; -1 for headers
+     */
+    private final int[] rowPlacements;
+
+    /**
+     * [node] -> side of the row, that contains the node; -1 for headers
+     */
+    private final int[] rowSides;
+
+    /**
+     * Current placements, indexed by ordinals of cube's sides; -1 for unoccupied sides
+     */
+    private final int[] placements;
+    private final int[] faceIndices;
+    private final Cube cube;
+
+    /**
+     * @param anchorOrientations Number of the first orientations of the first face, that should be tried
+     * @param control Limits of the search; solutions are not counted by this solver
+     * @param counters Counters of nodes, edge checks, prunes and duplicates, may be null
+     * @param progress Tracker of the rows, chosen on the first levels, may be null
+     */
+    DancingLinksSolver(CompatibilityTable table, int anchorOrientations, SearchControl control,
+                       SearchCounters counters, ProgressTracker progress) {
+
+        if (anchorOrientations < 1 || anchorOrientations > Orientation.COUNT) {
+            throw new IllegalArgumentException("Invalid number of anchor orientations: " + anchorOrientations);
+        }
+
+        this.table = table;
+        this.faces = table.getFaces();
+        if (faces.size() != CubeGeometry.SIDES) {
+            throw new IllegalArgumentException("Invalid number of faces: " + faces.size() +
+                    ", must be: " + CubeGeometry.SIDES);
+        }
+        this.symmetry = table.getFaceSymmetry();
+        this.control = control;
+        this.counters = counters;
+        this.progress = progress;
+
+        int columnCount = CubeGeometry.SIDES + faces.size();
+        int rowCount = countRows(anchorOrientations);
+        int nodeCount = 1 + columnCount + rowCount * 2;
+
+        this.left = new int[nodeCount];
+        this.right = new int[nodeCount];
+        this.up = new int[nodeCount];
+        this.down = new int[nodeCount];
+        this.columns = new int[nodeCount];
+        this.sizes = new int[1 + columnCount];
+        this.rowPlacements = new int[nodeCount];
+        this.rowSides = new int[nodeCount];
+
+        for (int header = 0; header <= columnCount; header++) {
+            left[header] = (header == 0)? columnCount : header - 1;
+            right[header] = (header == columnCount)? 0 : header + 1;
+            up[header] = down[header] = columns[header] = header;
+            rowPlacements[header] = rowSides[header] = -1;
+        }
+
+        int node = columnCount + 1;
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            for (int placement = 0; placement < table.getPlacementCount(); placement++) {
+                if (hasRow(side, placement, anchorOrientations)) {
+                    int sideNode = node++, faceNode = node++;
+                    appendNode(sideNode, getSideColumn(side), side, placement);
+                    appendNode(faceNode, getFaceColumn(CompatibilityTable.getFaceIndex(placement)), side, placement);
+                    left[sideNode] = right[sideNode] = faceNode;
+                    left[faceNode] = right[faceNode] = sideNode;
+                }
+            }
+        }
+
+        this.placements = new int[CubeGeometry.SIDES];
+        this.faceIndices = new int[CubeGeometry.SIDES];
+        Arrays.fill(placements, -1);
+        this.cube = new Cube(table);
+    }
+
+    private int countRows(int anchorOrientations) {
+        int count = 0;
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            for (int placement = 0; placement < table.getPlacementCount(); placement++) {
+                if (hasRow(side, placement, anchorOrientations)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The first face is fixed at the upper side, and only one of the orientations, that look the same, is used
+     */
+    private boolean hasRow(int side, int placement, int anchorOrientations) {
+
+        if (!symmetry.isRepresentative(placement)) {
+            return false;
+        }
+        boolean isFirstFace = (CompatibilityTable.getFaceIndex(placement) == 0);
+        if (side == CubeSide.UPPER.ordinal()) {
+            return isFirstFace && CompatibilityTable.getOrientation(placement) < anchorOrientations;
+        }
+        return !isFirstFace;
+    }
+
+    private static int getSideColumn(int side) {
+        return 1 + side;
+    }
+
+    private static int getFaceColumn(int faceIndex) {
+        return 1 + CubeGeometry.SIDES + faceIndex;
+    }
+
+    private void appendNode(int node, int column, int side, int placement) {
+        columns[node] = column;
+        rowSides[node] = side;
+        rowPlacements[node] = placement;
+        up[node] = up[column];
+        down[node] = column;
+        down[up[column]] = node;
+        up[column] = node;
+        sizes[column]++;
+    }
+
+    @Override
+    public void solveSolutions(SolutionVisitor visitor) {
+        search(0, visitor, null);
+    }
+
+    @Override
+    public void solveCubes(CubeVisitor visitor) {
+        search(0, null, visitor);
+    }
+
+    private void search(int depth, SolutionVisitor solutionVisitor, CubeVisitor cubeVisitor) {
+
+        if (control.isStopped()) {
+            return;
+        }
+
+        if (right[ROOT] == ROOT) {
+            onSolution(solutionVisitor, cubeVisitor);
+            return;
+        }
+
+        int column = chooseColumn();
+        cover(column);
+        int index = 0;
+        for (int row = down[column]; row != column; row = down[row], index++) {
+
+            if (progress != null && depth < ProgressTracker.LEVELS) {
+                progress.advance(depth, index, sizes[column]);
+            }
+
+            int side = rowSides[row];
+            placements[side] = rowPlacements[row];
+            if (counters != null) {
+                counters.onNode();
+            }
+            if (table.isConnected(placements, CUBE_SIDES[side], counters)) {
+                for (int node = right[row]; node != row; node = right[node]) {
+                    cover(columns[node]);
+                }
+                search(depth + 1, solutionVisitor, cubeVisitor);
+                for (int node = left[row]; node != row; node = left[node]) {
+                    uncover(columns[node]);
+                }
+            } else if (counters != null) {
+                counters.onPrune(depth);
+            }
+            placements[side] = -1;
+
+            if (control.isStopped()) {
+                break;
+            }
+        }
+        uncover(column);
+    }
+
+    /**
+     * @return Column with the fewest rows
+     */
+    private int chooseColumn() {
+        int chosen = right[ROOT];
+        for (int column = right[chosen]; column != ROOT; column = right[column]) {
+            if (sizes[column] < sizes[chosen]) {
+                chosen = column;
+            }
+        }
+        return chosen;
+    }
+
+    private void cover(int column) {
+        right[left[column]] = right[column];
+        left[right[column]] = left[column];
+        for (int row = down[column]; row != column; row = down[row]) {
+            for (int node = right[row]; node != row; node = right[node]) {
+                down[up[node]] = down[node];
+                up[down[node]] = up[node];
+                sizes[columns[node]]--;
+            }
+        }
+    }
+
+    private void uncover(int column) {
+        for (int row = up[column]; row != column; row = up[row]) {
+            for (int node = left[row]; node != row; node = left[node]) {
+                sizes[columns[node]]++;
+                down[up[node]] = node;
+                up[down[node]] = node;
+            }
+        }
+        right[left[column]] = column;
+        left[right[column]] = column;
+    }
+
+    private void onSolution(SolutionVisitor solutionVisitor, CubeVisitor cubeVisitor) {
+
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            faceIndices[side] = CompatibilityTable.getFaceIndex(placements[side]);
+        }
+        if (!symmetry.isCanonical(faceIndices)) {
+            // same solution with identical faces in the canonical order is visited as well
+            if (counters != null) {
+                counters.onDuplicate();
+            }
+            return;
+        }
+
+        long solution = Solution.pack(placements);
+        if (solutionVisitor != null) {
+            solutionVisitor.visit(solution);
+        }
+        if (cubeVisitor != null) {
+            cube.setSolution(solution);
+            cubeVisitor.visit(cube);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package example;
 
+import java.util.Arrays;
 import java.util.List;
 
 class DefaultSide implements Side {
 
     private List<CubeVertex> vertices;
+    /**
+     * Index of each vertex (by ordinal) in the list of vertices, or -1 if the side does not have it
+     */
+    private int[] slots;
     /**
      * The side of a cube has junctions with the occupying face;
      * each of the 4 vertices is a junction.
@@ -24,6 +29,11 @@ class DefaultSide implements Side {
      */
     public DefaultSide(List<CubeVertex> vertices) {
         this.vertices = vertices;
+        this.slots = new int[CubeGeometry.VERTICES];
+        Arrays.fill(slots, -1);
+        for (int slot = 0; slot < vertices.size(); slot++) {
+            slots[vertices.get(slot).ordinal()] = slot;
+        }
     }
     
     public boolean isOccupied() {
@@ -38,6 +48,12 @@ class DefaultSide implements Side {
         this.flipped = false;
     }
 
+    protected void setFace(Face face, int rotationFactor, boolean flipped) {
+        this.face = face;
+        this.junctionPoint = rotationFactor;
+        this.flipped = flipped;
+    }
+
     protected void removeFace() {
         this.face = null;
         this.junctionPoint = -1;
@@ -69,7 +85,8 @@ class DefaultSide implements Side {
     @Override
     public Edge getEdge(CubeVertex vertex) {
 
-        if (!vertices.contains(vertex)) {
+        int slot = slots[vertex.ordinal()];
+        if (slot < 0) {
             throw new IllegalArgumentException("Side does not have a vertex: " + vertex.name());
         }
 
@@ -78,16 +95,13 @@ class DefaultSide implements Side {
         // is just the index of the vertex, passed as an argument.
         // If the face is rotated,
         //  then edge's index is (4 - [junction point index] + [vertex index]) % 4
-        int edgeIndex = (4 - junctionPoint + vertices.indexOf(vertex)) % 4;
-        if (flipped) {
-            edgeIndex = Math.abs(edgeIndex - 3);
-        }
-        return face.getEdges().get(edgeIndex);
+        // (precomputed for all orientations)
+        return face.getEdges().get(CubeGeometry.getFaceEdgeIndex(Orientation.of(junctionPoint, flipped), slot));
     }
 
     @Override
     public boolean hasVertex(CubeVertex vertex) {
-        return vertices.contains(vertex);
+        return slots[vertex.ordinal()] >= 0;
     }
     
     @Override
@@ -7,6 +7,17 @@ public interface Edge {
     int getSize();
     byte[] getPoints();
     byte[] getPointsReverse();
+
+    /**
+     * @return Points packed into a bit vector of any length, where k-th point is the (k % 64)-th bit
+     *         of the (k / 64)-th word, and it's set if the point is a plug.
+     */
+    long[] getPlugWords();
+
+    /**
+     * @return Same as {@link #getPlugWords()}, but for points in reverse order.
+     */
+    long[] getPlugWordsReverse();
     Iterator<Byte> iterator();
     Iterator<Byte> iteratorReverse();
 }
@@ -0,0 +1,119 @@
+package example;
+
+/**
+ * Operations on edges, represented as bit vectors of plugs (see {@link Edge#getPlugWords()}):
+ * k-th point of the edge is the (k % 64)-th bit of the (k / 64)-th word, and it's set if the point is a plug.
+ *
+ * All operations go word by word, so their cost depends on the number of words, not on the number of points.
+ */
+final class EdgeMask {
+
+    private EdgeMask() {
+    }
+
+    /**
+     * @return Number of 64-bit words, that are needed to represent an edge of the given size
+     */
+    static int getWordCount(int edgeSize) {
+        return (edgeSize + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    static long[] pack(byte[] points) {
+        long[] words = new long[getWordCount(points.length)];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == 1) {
+                words[i / Long.SIZE] |= 1L << i;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return Mask of all points of the edge
+     */
+    static long[] mask(int edgeSize) {
+        long[] words = new long[getWordCount(edgeSize)];
+        for (int word = 0; word < words.length; word++) {
+            int bits = Math.min(Long.SIZE, edgeSize - word * Long.SIZE);
+            words[word] = (bits == Long.SIZE)? -1L : (1L << bits) - 1;
+        }
+        return words;
+    }
+
+    /**
+     * @return Mask of all points of the edge, except for the first and the last one (i.e. corners)
+     */
+    static long[] interiorMask(int edgeSize) {
+        long[] words = mask(edgeSize);
+        words[0] &= ~1L;
+        words[(edgeSize - 1) / Long.SIZE] &= ~(1L << (edgeSize - 1));
+        return words;
+    }
+
+    /**
+     * @return Points of the edge in reverse order
+     */
+    static long[] reverse(long[] plugs, int edgeSize) {
+        long[] reversed = new long[plugs.length];
+        reverse(plugs, 0, reversed, 0, plugs.length, edgeSize);
+        return reversed;
+    }
+
+    /**
+     * Write points of the edge, that starts at the given offset, in reverse order
+     *
+     * @param wordCount Number of words in the edge (see {@link #getWordCount(int)})
+     */
+    static void reverse(long[] plugs, int offset, long[] destination, int destinationOffset,
+                        int wordCount, int edgeSize) {
+
+        // reversing the whole vector of words moves the last point to the position (wordCount * 64 - edgeSize),
+        // so the result needs to be shifted by the number of padding bits
+        int padding = wordCount * Long.SIZE - edgeSize;
+        for (int word = 0; word < wordCount; word++) {
+            long low = Long.reverse(plugs[offset + wordCount - 1 - word]);
+            long high = (word + 1 < wordCount)? Long.reverse(plugs[offset + wordCount - 2 - word]) : 0;
+            destination[destinationOffset + word] = (padding == 0)? low : (low >>> padding) | (high << (Long.SIZE - padding));
+        }
+    }
+
+    /**
+     * Edges are read in the same direction, e.g. the second one has already been reversed.
+     * One point should be a plug and another should be a socket, except for the corners,
+     * where both points may be sockets (see {@link CompatibilityTable}).
+     *
+     * @return true, if the edges can be connected
+     */
+    static boolean canConnect(long[] plugs1, int offset1, long[] plugs2, int offset2, int edgeSize) {
+
+        int lastWord = (edgeSize - 1) / Long.SIZE;
+        for (int word = 0; word <= lastWord; word++) {
+            long p1 = plugs1[offset1 + word];
+            long mismatches = ~(p1 ^ plugs2[offset2 + word]);
+
+            long interior = -1L;
+            if (word == lastWord) {
+                int bits = edgeSize - word * Long.SIZE;
+                if (bits < Long.SIZE) {
+                    mismatches &= (1L << bits) - 1;
+                }
+                interior &= ~(1L << (bits - 1));
+            }
+            if (word == 0) {
+                interior &= ~1L;
+            }
+
+            if ((mismatches & interior) != 0 || (mismatches & p1) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true, if the point at the given position is a plug
+     */
+    static boolean isPlug(long[] plugs, int offset, int point) {
+        return (plugs[offset + point / Long.SIZE] & (1L << point)) != 0;
+    }
+}
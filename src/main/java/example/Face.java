@@ -80,6 +80,9 @@ public class Face {
         private final byte[] points;
         private final byte[] pointsReverse;
 
+        private final long[] plugWords;
+        private final long[] plugWordsReverse;
+
         DefaultEdge(int startingPoint, int size) {
 
             this.startingPoint = startingPoint;
@@ -105,6 +108,9 @@ public class Face {
             for (int i = 0; i < points.length; i++) {
                 pointsReverse[i] = points[points.length - i - 1];
             }
+
+            plugWords = EdgeMask.pack(points);
+            plugWordsReverse = EdgeMask.reverse(plugWords, size);
         }
 
         @Override
@@ -122,6 +128,16 @@ public class Face {
             return pointsReverse;
         }
 
+        @Override
+        public long[] getPlugWords() {
+            return plugWords;
+        }
+
+        @Override
+        public long[] getPlugWordsReverse() {
+            return plugWordsReverse;
+        }
+
         @Override
         public Iterator<Byte> iterator() {
             return new Iterator<Byte>() {
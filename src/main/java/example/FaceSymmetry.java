@@ -0,0 +1,335 @@
+package example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Redundancy in the faces of a puzzle: identical faces (that have the same points in some orientations)
+ * and symmetric faces (that look the same in several orientations).
+ *
+ * Solutions, that differ only by swapping identical faces or by choosing another orientation
+ * with the same look, are connected or disconnected together. So the search only needs to try:
+ * - one orientation out of each set of equivalent orientations (the least one), see {@link #isRepresentative(int)};
+ * - one order of identical faces, see {@link #isAllowed(int, boolean[])} and {@link #isCanonical(int[])},
+ * and all the skipped solutions are restored from each found solution, see {@link #expand(long, int, SearchControl, SolutionVisitor)}.
+ *
+ * The first face is always fixed at the upper side, so it's never swapped with identical faces.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+final class FaceSymmetry {
+
+    private final int faceCount;
+
+    /**
+     * [face] -> closest identical face with a lower index (except for the first face), or -1
+     */
+    private final int[] previousTwins;
+
+    /**
+     * Groups of identical faces (except for the first face), that have at least two faces; indices are ascending
+     */
+    private final int[][] twinGroups;
+
+    /**
+     * [face * 8 + orientation] -> orientation of the face's canonical form (see {@link PuzzleFingerprint}),
+     * that looks the same
+     */
+    private final int[] toCanonical;
+
+    /**
+     * [face * 8 + orientation of the canonical form] -> orientation of the face, that looks the same
+     */
+    private final int[] fromCanonical;
+
+    /**
+     * [placement] -> orientations of the same face, that look the same, ascending
+     */
+    private final int[][] equivalentOrientations;
+
+    private final boolean trivial;
+
+    private FaceSymmetry(List<Face> faces) {
+
+        this.faceCount = faces.size();
+        this.toCanonical = new int[faceCount * Orientation.COUNT];
+        this.fromCanonical = new int[faceCount * Orientation.COUNT];
+        this.equivalentOrientations = new int[faceCount * Orientation.COUNT][];
+
+        boolean trivial = true;
+        byte[][] canonicalPoints = new byte[faceCount][];
+        for (int face = 0; face < faceCount; face++) {
+
+            byte[][] points = new byte[Orientation.COUNT][];
+            int canonicalOrientation = 0;
+            for (int orientation = 0; orientation < Orientation.COUNT; orientation++) {
+                points[orientation] = PuzzleFingerprint.getPoints(faces.get(face), orientation);
+                if (compare(points[orientation], points[canonicalOrientation]) < 0) {
+                    canonicalOrientation = orientation;
+                }
+            }
+            canonicalPoints[face] = points[canonicalOrientation];
+
+            for (int orientation = 0; orientation < Orientation.COUNT; orientation++) {
+                int composition = PuzzleFingerprint.compose(canonicalOrientation, orientation);
+                fromCanonical[face * Orientation.COUNT + orientation] = composition;
+                toCanonical[face * Orientation.COUNT + composition] = orientation;
+
+                int[] equivalent = new int[Orientation.COUNT];
+                int count = 0;
+                for (int other = 0; other < Orientation.COUNT; other++) {
+                    if (Arrays.equals(points[orientation], points[other])) {
+                        equivalent[count++] = other;
+                    }
+                }
+                equivalentOrientations[face * Orientation.COUNT + orientation] = Arrays.copyOf(equivalent, count);
+                if (count > 1) {
+                    trivial = false;
+                }
+            }
+        }
+
+        this.previousTwins = new int[faceCount];
+        int[] groupSizes = new int[faceCount];
+        int groupCount = 0;
+        Arrays.fill(previousTwins, -1);
+        for (int face = 1; face < faceCount; face++) {
+            for (int other = face - 1; other >= 1; other--) {
+                if (Arrays.equals(canonicalPoints[face], canonicalPoints[other])) {
+                    previousTwins[face] = other;
+                    trivial = false;
+                    break;
+                }
+            }
+        }
+        for (int face = faceCount - 1; face >= 1; face--) {
+            // each group is counted at its first face
+            int first = face;
+            while (previousTwins[first] >= 0) {
+                first = previousTwins[first];
+            }
+            groupSizes[first]++;
+        }
+        for (int face = 1; face < faceCount; face++) {
+            if (groupSizes[face] > 1) {
+                groupCount++;
+            }
+        }
+
+        this.twinGroups = new int[groupCount][];
+        int group = 0;
+        for (int face = 1; face < faceCount; face++) {
+            if (groupSizes[face] > 1) {
+                int[] members = new int[groupSizes[face]];
+                int count = 0;
+                for (int other = face; other < faceCount; other++) {
+                    int first = other;
+                    while (previousTwins[first] >= 0) {
+                        first = previousTwins[first];
+                    }
+                    if (first == face) {
+                        members[count++] = other;
+                    }
+                }
+                twinGroups[group++] = members;
+            }
+        }
+        this.trivial = trivial;
+    }
+
+    static FaceSymmetry of(List<Face> faces) {
+        return new FaceSymmetry(faces);
+    }
+
+    private static int compare(byte[] points1, byte[] points2) {
+        for (int i = 0; i < points1.length; i++) {
+            if (points1[i] != points2[i]) {
+                return points1[i] - points2[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return true, if there are no identical faces and no symmetric faces,
+     *         so that the search can't be reduced
+     */
+    boolean isTrivial() {
+        return trivial;
+    }
+
+    /**
+     * @return true, if the orientation of the placement is the least among the orientations, that look the same
+     */
+    boolean isRepresentative(int placement) {
+        return equivalentOrientations[placement][0] == CompatibilityTable.getOrientation(placement);
+    }
+
+    /**
+     * @return Closest identical face with a lower index, or -1 (always -1 for the first face)
+     */
+    int getPreviousTwin(int face) {
+        return previousTwins[face];
+    }
+
+    /**
+     * Identical faces must be chosen in the order of their indices
+     *
+     * @param used Faces, that have already been chosen
+     * @return true, if the face may be chosen next
+     */
+    boolean isAllowed(int face, boolean[] used) {
+        int previousTwin = previousTwins[face];
+        return previousTwin < 0 || used[previousTwin];
+    }
+
+    /**
+     * Identical faces must occupy the sides in the order of their indices
+     *
+     * @param faceIndices Indices of faces, indexed by ordinals of cube's sides
+     * @return true, if the faces are placed in this order
+     */
+    boolean isCanonical(int[] faceIndices) {
+        if (twinGroups.length == 0) {
+            return true;
+        }
+        int[] sides = new int[faceCount];
+        Arrays.fill(sides, -1);
+        for (int side = 0; side < faceIndices.length; side++) {
+            sides[faceIndices[side]] = side;
+        }
+        for (int face = 0; face < faceCount; face++) {
+            int previousTwin = previousTwins[face];
+            if (previousTwin >= 0 && sides[face] >= 0 && sides[previousTwin] > sides[face]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visit the given solution and all solutions, that differ from it only by swapping identical faces
+     * and by choosing other orientations, that look the same.
+     * All faces of the puzzle must be placed, the first face at the upper side.
+     *
+     * @param anchorOrientations Number of the first orientations of the upper side, that should be visited
+     *                           (see {@link CubeSymmetry#getAnchorOrientations(boolean)})
+     * @param control Limits of the search, may be null; the remaining solutions are skipped,
+     *                as soon as the search is stopped
+     */
+    void expand(long solution, int anchorOrientations, SearchControl control, SolutionVisitor visitor) {
+
+        if (trivial) {
+            visitor.visit(solution);
+            return;
+        }
+        int[] placements = new int[CubeGeometry.SIDES];
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            placements[side] = Solution.getPlacement(solution, side);
+        }
+        new Expansion(placements, anchorOrientations, control, visitor).expandTwins(0);
+    }
+
+    private class Expansion {
+
+        private final int[] placements;
+        private final int anchorOrientations;
+        private final SearchControl control;
+        private final SolutionVisitor visitor;
+
+        /**
+         * [face] -> side, that is occupied by the face
+         */
+        private final int[] sides;
+        private final int[] orientations;
+
+        Expansion(int[] placements, int anchorOrientations, SearchControl control, SolutionVisitor visitor) {
+            this.placements = placements;
+            this.anchorOrientations = anchorOrientations;
+            this.control = control;
+            this.visitor = visitor;
+            this.sides = new int[faceCount];
+            this.orientations = new int[CubeGeometry.SIDES];
+        }
+
+        /**
+         * Try all permutations of faces in each group of identical faces, starting with the given group
+         */
+        void expandTwins(int group) {
+
+            if (group == twinGroups.length) {
+                expandOrientations(0);
+                return;
+            }
+
+            int[] members = twinGroups[group];
+            int[] memberSides = new int[members.length], canonicalOrientations = new int[members.length];
+            for (int side = 0; side < CubeGeometry.SIDES; side++) {
+                sides[CompatibilityTable.getFaceIndex(placements[side])] = side;
+            }
+            for (int i = 0; i < members.length; i++) {
+                memberSides[i] = sides[members[i]];
+                int placement = placements[memberSides[i]];
+                canonicalOrientations[i] = toCanonical[placement];
+            }
+
+            int[] permutation = Arrays.copyOf(members, members.length);
+            permute(group, permutation, 0, memberSides, canonicalOrientations);
+        }
+
+        private void permute(int group, int[] permutation, int fixedCount, int[] memberSides, int[] canonicalOrientations) {
+
+            if (isStopped()) {
+                return;
+            }
+            if (fixedCount == permutation.length) {
+                for (int i = 0; i < permutation.length; i++) {
+                    int face = permutation[i];
+                    placements[memberSides[i]] = CompatibilityTable.placement(face,
+                            fromCanonical[face * Orientation.COUNT + canonicalOrientations[i]]);
+                }
+                expandTwins(group + 1);
+                return;
+            }
+            for (int i = fixedCount; i < permutation.length; i++) {
+                swap(permutation, fixedCount, i);
+                permute(group, permutation, fixedCount + 1, memberSides, canonicalOrientations);
+                swap(permutation, fixedCount, i);
+            }
+        }
+
+        private void expandOrientations(int side) {
+
+            if (isStopped()) {
+                return;
+            }
+            if (side == CubeGeometry.SIDES) {
+                long solution = 0;
+                for (int s = 0; s < CubeGeometry.SIDES; s++) {
+                    solution |= (long) CompatibilityTable.placement(CompatibilityTable.getFaceIndex(placements[s]),
+                            orientations[s]) << (s * Solution.BITS_PER_SIDE);
+                }
+                visitor.visit(solution);
+                return;
+            }
+
+            int orientationLimit = (side == CubeSide.UPPER.ordinal())? anchorOrientations : Orientation.COUNT;
+            for (int orientation : equivalentOrientations[placements[side]]) {
+                if (orientation < orientationLimit) {
+                    orientations[side] = orientation;
+                    expandOrientations(side + 1);
+                }
+            }
+        }
+
+        private boolean isStopped() {
+            return control != null && control.isStopped();
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+}
@@ -1,50 +1,167 @@
 package example;
 
-import java.util.HashSet;
-import java.util.Set;
-
 class FilteringHappyCubeVisitor implements CubeVisitor {
 
     final private CubeVisitor delegate;
-    final private boolean shouldFindUniqueSolutions;
-    private Set<Configuration> solutions = new HashSet<>();
+    final private SolutionVisitor solutionDelegate;
+    final private int anchorOrientations;
+    final private SearchControl control;
+    final private FaceSymmetry symmetry;
+    final private SearchCounters counters;
 
-    FilteringHappyCubeVisitor(CubeVisitor delegate, boolean shouldFindUniqueSolutions) {
+    /**
+     * @param delegate Visitor of connected cubes, may be null
+     * @param solutionDelegate Visitor of packed solutions, may be null
+     * @param anchorOrientations Number of the first orientations of the upper side, that should be visited
+     *                           (see {@link CubeSymmetry#getAnchorOrientations(boolean)});
+     *                           all other sides are visited in all orientations
+     * @param control Limits of the search
+     * @param table Table, that is used by the engine; each solution, that is found by the engine,
+     *              is expanded to the solutions, that differ only by identical and symmetric faces (see {@link FaceSymmetry})
+     * @param counters Counters of the search, may be null; must not be updated concurrently
+     *                 with the calls to this visitor
+     */
+    FilteringHappyCubeVisitor(CubeVisitor delegate, SolutionVisitor solutionDelegate, int anchorOrientations,
+                              SearchControl control, CompatibilityTable table, SearchCounters counters) {
         this.delegate = delegate;
-        this.shouldFindUniqueSolutions = shouldFindUniqueSolutions;
+        this.solutionDelegate = solutionDelegate;
+        this.anchorOrientations = anchorOrientations;
+        this.control = control;
+        this.symmetry = table.getFaceSymmetry();
+        this.counters = counters;
     }
 
     @Override
     public void visit(Cube cube) {
 
+        if (!cube.hasCanonicalFaceOrder()) {
+            // same cube with identical faces in another order will be visited as well
+            if (counters != null) {
+                counters.onDuplicate();
+            }
+            return;
+        }
+
         CubeVisitor rotationVisitor = new CubeVisitor() {
             @Override
             public void visit(Cube cube) {
-                if (cube.isConnected()) {
-                    if (!shouldFindUniqueSolutions || ensureSolutionIsUnique(cube)) {
-                        if (delegate != null) {
-                            delegate.visit(cube);
-                        }
-                    }
+                if (counters != null) {
+                    counters.onNode();
+                }
+                if (cube.isConnected(counters)) {
+                    visitSolution(cube);
+                } else if (counters != null) {
+                    counters.onPrune(CubeGeometry.SIDES - 1);
                 }
             }
         };
 
-        cube.visitRotations(rotationVisitor);
-    }
+        if (anchorOrientations == Orientation.COUNT) {
+            cube.visitDistinctRotations(rotationVisitor, 0, control, counters);
+            return;
+        }
 
-    private boolean ensureSolutionIsUnique(Cube cube) {
+        Side upperSide = cube.getSides().get(CubeSide.UPPER);
+        Face face = upperSide.getFace();
+        int rotationFactor = upperSide.getRotationFactor();
+        boolean flipped = upperSide.isFlipped();
 
-        Configuration solution = Configuration.fromCube(cube);
+        // upper side is the first one
+        for (int orientation = 0; orientation < anchorOrientations; orientation++) {
+            if (!symmetry.isRepresentative(CompatibilityTable.placement(0, orientation))) {
+                if (counters != null) {
+                    counters.onDuplicate();
+                }
+                continue;
+            }
+            cube.setFace(CubeSide.UPPER, face,
+                    Orientation.getRotationFactor(orientation), Orientation.isFlipped(orientation));
+            cube.visitDistinctRotations(rotationVisitor, 1, control, counters);
+        }
+        cube.setFace(CubeSide.UPPER, face, rotationFactor, flipped);
+    }
 
-        if (solutions.contains(solution)) {
-            return false;
+    /**
+     * Pass a connected cube and all cubes, that differ only by identical and symmetric faces,
+     * to the delegates, unless the search has been stopped. The cube is restored afterwards.
+     * Must not be called concurrently.
+     */
+    void visitSolution(final Cube cube) {
+
+        long start = (counters != null)? System.nanoTime() : 0;
+        if (symmetry.isTrivial()) {
+            // the packed solution is not needed, if there's no solution delegate
+            visitExpandedSolution(cube, (solutionDelegate != null)? cube.getSolution() : 0);
+        } else {
+            long solution = cube.getSolution();
+            symmetry.expand(solution, anchorOrientations, control, new SolutionVisitor() {
+                @Override
+                public void visit(long expandedSolution) {
+                    if (delegate != null) {
+                        cube.setSolution(expandedSolution);
+                    }
+                    visitExpandedSolution(cube, expandedSolution);
+                }
+            });
+            if (delegate != null) {
+                cube.setSolution(solution);
+            }
+        }
+        if (counters != null) {
+            counters.addSolutionTime(System.nanoTime() - start);
         }
+    }
 
-        solutions.addAll(Configuration.buildSymmetricConfigurations(solution));
-        return true;
+    private void visitExpandedSolution(Cube cube, long solution) {
+        if (!control.onSolution()) {
+            return;
+        }
+        long start = (counters != null)? System.nanoTime() : 0;
+        if (delegate != null) {
+            delegate.visit(cube);
+        }
+        if (solutionDelegate != null) {
+            solutionDelegate.visit(solution);
+        }
+        if (counters != null) {
+            counters.onSolution();
+            counters.addVisitTime(System.nanoTime() - start);
+        }
     }
 
+    /**
+     * Same as {@link #visitSolution(Cube)}, but only for the solution delegate.
+     * Must not be called concurrently.
+     */
+    void visitSolution(long solution) {
 
+        long start = (counters != null)? System.nanoTime() : 0;
+        if (symmetry.isTrivial()) {
+            visitExpandedSolution(solution);
+        } else {
+            symmetry.expand(solution, anchorOrientations, control, new SolutionVisitor() {
+                @Override
+                public void visit(long expandedSolution) {
+                    visitExpandedSolution(expandedSolution);
+                }
+            });
+        }
+        if (counters != null) {
+            counters.addSolutionTime(System.nanoTime() - start);
+        }
+    }
 
+    private void visitExpandedSolution(long solution) {
+        if (!control.onSolution()) {
+            return;
+        }
+        long start = (counters != null)? System.nanoTime() : 0;
+        if (solutionDelegate != null) {
+            solutionDelegate.visit(solution);
+        }
+        if (counters != null) {
+            counters.onSolution();
+            counters.addVisitTime(System.nanoTime() - start);
+        }
+    }
 }
@@ -1,8 +1,25 @@
 package example;
 
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
 public interface HappyCube {
 
     HappyCube cubeVisitor(CubeVisitor visitor);
+    HappyCube solutionVisitor(SolutionVisitor visitor);
     HappyCube uniqueSolutions();
-    void solve();
+    HappyCube excludeMirrorImages();
+    HappyCube engine(SolverEngine engine);
+    HappyCube parallelism(int parallelism);
+    HappyCube limit(long limit);
+    HappyCube firstSolution();
+    HappyCube timeout(Duration timeout);
+    HappyCube cancellationToken(CancellationToken cancellationToken);
+    HappyCube metricsListener(MetricsListener listener);
+    HappyCube progressListener(ProgressListener listener, Duration interval);
+    StopReason solve();
+    SolutionCount count();
+    Iterator<Solution> iterator();
+    Stream<Solution> stream();
 }
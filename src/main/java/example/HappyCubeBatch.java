@@ -0,0 +1,15 @@
+package example;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+public interface HappyCubeBatch {
+
+    HappyCubeBatch executor(Executor executor);
+    HappyCubeBatch maxInFlight(int maxInFlight);
+    HappyCubeBatch uniqueSolutions();
+    HappyCubeBatch engine(SolverEngine engine);
+    void solve(BatchCallback callback);
+    List<Future<PuzzleResult>> submit();
+}
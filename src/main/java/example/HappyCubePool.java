@@ -0,0 +1,15 @@
+package example;
+
+import java.time.Duration;
+
+public interface HappyCubePool {
+
+    HappyCubePool uniqueSolutions();
+    HappyCubePool excludeMirrorImages();
+    HappyCubePool limit(long limit);
+    HappyCubePool timeout(Duration timeout);
+    HappyCubePool cancellationToken(CancellationToken cancellationToken);
+    HappyCubePool metricsListener(MetricsListener listener);
+    HappyCubePool progressListener(ProgressListener listener, Duration interval);
+    StopReason solve(PoolVisitor visitor);
+}
@@ -1,40 +1,61 @@
 package example;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 class HappyCubeSolver {
 
+    private static final CubeSide[] CUBE_SIDES = CubeSide.values();
+
     HappyCubeSolver(CubeVisitor visitor) {
+        this(visitor, SearchControl.unlimited());
+    }
+
+    HappyCubeSolver(CubeVisitor visitor, SearchControl control) {
+        this(visitor, control, null);
+    }
+
+    /**
+     * @param progress Tracker of the choices of faces for the bottom and southern sides
+     *                 and of the side for the next face, may be null
+     */
+    HappyCubeSolver(CubeVisitor visitor, SearchControl control, ProgressTracker progress) {
         this.visitor = visitor;
+        this.control = control;
+        this.progress = progress;
     }
 
     private CubeVisitor visitor;
+    private SearchControl control;
+    private ProgressTracker progress;
 
     void solve(List<Face> faces) {
+        solve(CompatibilityTable.build(faces));
+    }
 
-        Cube cube = new Cube();
+    void solve(CompatibilityTable table) {
 
-        Map<CubeSide, Side> sides = cube.getSides();
-        Side upperSide = sides.get(CubeSide.UPPER), bottomSide = sides.get(CubeSide.BOTTOM),
-            southernSide = sides.get(CubeSide.SOUTHERN);
+        List<Face> faces = table.getFaces();
+        Cube cube = new Cube(table);
 
-        List<Face> freeFaces = new LinkedList<>();
-        List<Side> fixedSides = new ArrayList<>(faces.size() + 1);
+        // upper, bottom and southern sides are occupied before building the rest of the cube
+        List<Face> freeFaces = new ArrayList<>(faces.size() + 1);
         cube.setFace(CubeSide.UPPER, faces.get(0));
-        fixedSides.add(upperSide);
-        fixedSides.add(bottomSide);
-        fixedSides.add(southernSide);
 
         int len = faces.size();
-        for (int i = 1; i < len; i++) {
+        for (int i = 1; i < len && !control.isStopped(); i++) {
             Face bottomFace = faces.get(i);
-            for (int j = 1; j < len; j++) {
+            if (progress != null) {
+                progress.advance(0, i - 1, len - 1);
+            }
+            for (int j = 1; j < len && !control.isStopped(); j++) {
                 if (i == j) {
                     continue;
                 }
+                if (progress != null) {
+                    // bottom face is skipped
+                    progress.advance(1, (j < i)? j - 1 : j - 2, len - 2);
+                }
                 Face southernFace = faces.get(j);
                 cube.setFace(CubeSide.BOTTOM, bottomFace);
                 cube.setFace(CubeSide.SOUTHERN, southernFace);
@@ -43,28 +64,33 @@ class HappyCubeSolver {
                         freeFaces.add(faces.get(k));
                     }
                 }
-                buildCubes(cube, freeFaces, 0, fixedSides);
+                buildCubes(cube, freeFaces, 0);
                 freeFaces.clear();
             }
         }
     }
 
-    private void buildCubes(Cube cube, List<Face> faces, int fixedCount, List<Side> fixedSides) {
+    private void buildCubes(Cube cube, List<Face> faces, int fixedCount) {
+
+        if (control.isStopped()) {
+            return;
+        }
 
         if (cube.isComplete()) { // let the algorithm work even if there's no visitor
             if (visitor != null) {
                 visitor.visit(cube);
             }
         } else {
-            for (CubeSide cubeSide : CubeSide.values()) {
-                Side side = cube.getSides().get(cubeSide);
-                if (!fixedSides.contains(side)) {
-                    Face face = faces.get(fixedCount);
+            Face face = faces.get(fixedCount);
+            int freeSideIndex = 0;
+            for (CubeSide cubeSide : CUBE_SIDES) {
+                if (!cube.isOccupied(cubeSide)) {
+                    if (progress != null && fixedCount == 0) {
+                        progress.advance(2, freeSideIndex++, faces.size());
+                    }
                     cube.setFace(cubeSide, face);
-                    fixedSides.add(side);
-                    buildCubes(cube, faces, fixedCount + 1, fixedSides);
+                    buildCubes(cube, faces, fixedCount + 1);
                     cube.removeFace(cubeSide);
-                    fixedSides.remove(side);
                 }
             }
         }
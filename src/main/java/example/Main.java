@@ -9,84 +9,90 @@ public class Main {
 
     public static void main(String[] args) {
 
-        List<Face> blueFaces = new ArrayList<>(6 + 1);
-        blueFaces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,0,1,0,0,0,1,0}, 5));
-        blueFaces.add(new Face(new byte[] {1,0,1,0,1,1,0,1,1,0,1,0,1,1,0,1}, 5));
-        blueFaces.add(new Face(new byte[] {0,0,1,0,0,1,0,1,0,0,1,0,0,0,1,0}, 5));
-        blueFaces.add(new Face(new byte[] {0,1,0,1,0,1,0,1,1,1,0,1,1,0,1,0}, 5));
-        blueFaces.add(new Face(new byte[] {0,1,0,1,0,1,0,1,0,0,1,0,1,1,0,1}, 5));
-        blueFaces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,0,1,0,1,1,1,0,1}, 5));
-
-        solveExample(blueFaces, new File("blue.txt"));
-
-        List<Face> redFaces = new ArrayList<>(6 + 1);
-        redFaces.add(new Face(new byte[] {0,0,0,1,1,0,1,0,1,1,0,1,0,0,1,0}, 5));
-        redFaces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,0,0,0,1,0,1,0,1}, 5));
-        redFaces.add(new Face(new byte[] {0,1,1,0,1,1,0,1,1,1,0,0,1,1,0,1}, 5));
-        redFaces.add(new Face(new byte[] {0,1,1,0,0,0,1,0,1,1,0,1,1,0,1,0}, 5));
-        redFaces.add(new Face(new byte[] {0,0,1,1,0,1,0,1,0,0,1,0,1,1,0,1}, 5));
-        redFaces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,0,1,0,0,1,0,1}, 5));
-
-        solveExample(redFaces, new File("red.txt"));
-
-        List<Face> purpleFaces = new ArrayList<>(6 + 1);
-        purpleFaces.add(new Face(new byte[] {1,1,0,1,0,0,0,1,0,0,1,0,0,0,1,1}, 5));
-        purpleFaces.add(new Face(new byte[] {0,0,0,1,1,0,1,0,0,1,0,1,0,0,1,1}, 5));
-        purpleFaces.add(new Face(new byte[] {0,1,0,0,0,0,1,0,0,0,1,0,0,1,0,1}, 5));
-        purpleFaces.add(new Face(new byte[] {0,1,0,1,1,0,1,0,0,1,0,1,1,1,0,0}, 5));
-        purpleFaces.add(new Face(new byte[] {0,0,1,0,1,1,1,0,0,1,1,0,1,1,1,0}, 5));
-        purpleFaces.add(new Face(new byte[] {1,1,0,1,1,1,0,0,0,1,0,1,0,0,1,0}, 5));
-
-        solveExample(purpleFaces, new File("purple.txt"));
-
-        List<Face> goldenFaces = new ArrayList<>(6 + 1);
-        goldenFaces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,1,0,1,0,1,0,1}, 5));
-        goldenFaces.add(new Face(new byte[] {0,0,1,0,1,1,0,0,0,1,0,1,0,1,0,1}, 5));
-        goldenFaces.add(new Face(new byte[] {0,0,1,0,1,1,0,1,0,0,1,0,1,1,1,0}, 5));
-        goldenFaces.add(new Face(new byte[] {1,0,1,0,1,1,0,1,0,0,1,0,1,1,0,1}, 5));
-        goldenFaces.add(new Face(new byte[] {0,0,1,0,0,1,0,1,0,1,0,1,1,0,1,0}, 5));
-        goldenFaces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,1,1,0,1,0,0,1,0}, 5));
-
-        solveExample(goldenFaces, new File("golden.txt"));
+        solveExample(blueFaces(), new File("blue.txt"));
+        solveExample(redFaces(), new File("red.txt"));
+        solveExample(purpleFaces(), new File("purple.txt"));
+        solveExample(goldenFaces(), new File("golden.txt"));
     }
 
-    private static void solveExample(List<Face> faces, File file) {
+    static List<Face> blueFaces() {
 
-        try (ConfigurationWriter writer = ConfigurationWriter.fileWriter(file)) {
-            writer.writeFaces(faces);
+        List<Face> faces = new ArrayList<>(6 + 1);
+        faces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,0,1,0,0,0,1,0}, 5));
+        faces.add(new Face(new byte[] {1,0,1,0,1,1,0,1,1,0,1,0,1,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,0,1,0,1,0,0,1,0,0,0,1,0}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,0,1,0,1,1,1,0,1,1,0,1,0}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,0,1,0,1,0,0,1,0,1,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,0,1,0,1,1,1,0,1}, 5));
 
-            CountingCubeVisitor visitor = new CountingCubeVisitor(writer);
-            long t1 = System.currentTimeMillis();
+        return faces;
+    }
 
-            Solver.happyCube(faces).cubeVisitor(visitor).uniqueSolutions().solve();
+    static List<Face> redFaces() {
 
-            System.out.println(String.format("Solved in %d ms. Total solutions: %d. Saved to: %s",
-                    (System.currentTimeMillis() - t1), visitor.getResultCount(), file.getAbsolutePath()));
-            System.out.println();
-            System.out.flush();
+        List<Face> faces = new ArrayList<>(6 + 1);
+        faces.add(new Face(new byte[] {0,0,0,1,1,0,1,0,1,1,0,1,0,0,1,0}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,0,0,0,1,0,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,1,1,0,1,1,0,1,1,1,0,0,1,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,1,1,0,0,0,1,0,1,1,0,1,1,0,1,0}, 5));
+        faces.add(new Face(new byte[] {0,0,1,1,0,1,0,1,0,0,1,0,1,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,0,1,0,0,1,0,1}, 5));
 
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        return faces;
     }
 
-    private static class CountingCubeVisitor implements CubeVisitor {
+    static List<Face> purpleFaces() {
 
-        private ConfigurationWriter writer;
-        private int resultCount;
+        List<Face> faces = new ArrayList<>(6 + 1);
+        faces.add(new Face(new byte[] {1,1,0,1,0,0,0,1,0,0,1,0,0,0,1,1}, 5));
+        faces.add(new Face(new byte[] {0,0,0,1,1,0,1,0,0,1,0,1,0,0,1,1}, 5));
+        faces.add(new Face(new byte[] {0,1,0,0,0,0,1,0,0,0,1,0,0,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,1,0,1,0,0,1,0,1,1,1,0,0}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,1,1,1,0,0,1,1,0,1,1,1,0}, 5));
+        faces.add(new Face(new byte[] {1,1,0,1,1,1,0,0,0,1,0,1,0,0,1,0}, 5));
 
-        CountingCubeVisitor(ConfigurationWriter writer) {
-            this.writer = writer;
-        }
+        return faces;
+    }
 
-        @Override
-        public void visit(Cube cube) {
-            resultCount++;
-            writer.writeConfiguration(Configuration.fromCube(cube));
-        }
+    static List<Face> goldenFaces() {
 
-        public int getResultCount() {
-            return resultCount;
+        List<Face> faces = new ArrayList<>(6 + 1);
+        faces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,1,0,1,0,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,1,1,0,0,0,1,0,1,0,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,1,1,0,1,0,0,1,0,1,1,1,0}, 5));
+        faces.add(new Face(new byte[] {1,0,1,0,1,1,0,1,0,0,1,0,1,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,0,1,0,1,0,1,0,1,1,0,1,0}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,1,1,0,1,0,0,1,0}, 5));
+
+        return faces;
+    }
+
+    private static void solveExample(List<Face> faces, File file) {
+
+        ConfigurationWriter configurationWriter = ConfigurationWriter.fileWriter(file);
+        configurationWriter.writeFaces(faces);
+
+        try (AsyncSolutionWriter writer = AsyncSolutionWriter.start(configurationWriter, faces)) {
+
+            final SearchMetrics[] metrics = new SearchMetrics[1];
+            Solver.happyCube(faces).solutionVisitor(writer).uniqueSolutions().metricsListener(new MetricsListener() {
+                @Override
+                public void onMetrics(SearchMetrics searchMetrics) {
+                    metrics[0] = searchMetrics;
+                }
+            }).solve();
+
+            System.out.println(String.format("Solved in %d ms (search: %d ms, filter: %d ms, visit: %d ms). " +
+                            "Nodes: %d, edge checks: %d. Total solutions: %d. Saved to: %s",
+                    metrics[0].getTotalTime().toMillis(), metrics[0].getSearchTime().toMillis(),
+                    metrics[0].getFilterTime().toMillis(), metrics[0].getVisitTime().toMillis(),
+                    metrics[0].getNodes(), metrics[0].getEdgeChecks(),
+                    writer.getSolutionCount(), file.getAbsolutePath()));
+            System.out.println();
+            System.out.flush();
+
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
 }
@@ -0,0 +1,9 @@
+package example;
+
+/**
+ * Receives the metrics of a search, when the search has stopped, see {@link HappyCube#metricsListener(MetricsListener)}.
+ */
+public interface MetricsListener {
+
+    void onMetrics(SearchMetrics metrics);
+}
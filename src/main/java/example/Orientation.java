@@ -0,0 +1,29 @@
+package example;
+
+/**
+ * Each face can be superimposed over a cube's side in 8 different ways:
+ * it can be rotated 4 times by 90 degrees, and it can be flipped.
+ *
+ * Orientation is a number from 0 to 7, that encodes both the rotation factor of the face
+ * (see {@link Side#getRotationFactor()}) and whether the face is flipped (see {@link Side#isFlipped()}).
+ * Orientations are numbered in the same order, as they are visited by {@link Cube#visitRotations(CubeVisitor)}.
+ */
+public final class Orientation {
+
+    public static final int COUNT = 8;
+
+    private Orientation() {
+    }
+
+    public static int of(int rotationFactor, boolean flipped) {
+        return rotationFactor * 2 + (flipped? 1 : 0);
+    }
+
+    public static int getRotationFactor(int orientation) {
+        return orientation / 2;
+    }
+
+    public static boolean isFlipped(int orientation) {
+        return orientation % 2 == 1;
+    }
+}
@@ -0,0 +1,255 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Same search as in {@link HappyCubeSolver}, split into independent subtasks,
+ * that are executed by a work-stealing fork/join pool:
+ * - one task for each choice of faces for the bottom and southern sides,
+ * - one subtask for each permutation of the remaining faces,
+ * - one subtask for each rotation of the upper side in this permutation.
+ * Each subtask works with its own cube.
+ *
+ * Identical faces are placed only in the order of their indices, and orientations of a face, that look the same,
+ * are tried only once (see {@link FaceSymmetry}), so the visitor is expected to expand each cube
+ * (see {@link FilteringHappyCubeVisitor#visitSolution(Cube)}).
+ *
+ * Connected cubes are passed to the visitor one at a time,
+ * so the visitor does not need to be thread-safe.
+ */
+class ParallelHappyCubeSolver {
+
+    private static final CubeSide[] FREE_SIDES = new CubeSide[] {
+            CubeSide.NORTHERN, CubeSide.EASTERN, CubeSide.WESTERN
+    };
+
+    private final CubeVisitor visitor;
+    private final int parallelism;
+    private final int anchorOrientations;
+    private final SearchControl control;
+    private final SearchCounters counters;
+    private final ProgressTracker progress;
+    private final Object lock;
+
+    /**
+     * @param visitor Visitor of connected cubes
+     * @param anchorOrientations Number of the first orientations of the upper side, that should be visited
+     *                           (see {@link CubeSymmetry#getAnchorOrientations(boolean)})
+     * @param control Limits of the search; tasks, that have not been started yet, are skipped,
+     *                as soon as the search is stopped
+     */
+    ParallelHappyCubeSolver(CubeVisitor visitor, int parallelism, int anchorOrientations, SearchControl control) {
+        this(visitor, parallelism, anchorOrientations, control, null, null);
+    }
+
+    /**
+     * @param counters Counters of nodes, edge checks, prunes and duplicates, may be null;
+     *                 each task keeps its own counters, that are merged into these ones
+     *                 by one thread at a time, same as the visitor is called
+     * @param progress Tracker of the finished tasks, may be null
+     */
+    ParallelHappyCubeSolver(CubeVisitor visitor, int parallelism, int anchorOrientations, SearchControl control,
+                            SearchCounters counters, ProgressTracker progress) {
+        this.visitor = visitor;
+        this.parallelism = parallelism;
+        this.anchorOrientations = anchorOrientations;
+        this.control = control;
+        this.counters = counters;
+        this.progress = progress;
+        this.lock = new Object();
+    }
+
+    private SearchCounters createCounters() {
+        return (counters != null)? new SearchCounters() : null;
+    }
+
+    private void mergeCounters(SearchCounters taskCounters) {
+        if (taskCounters != null) {
+            synchronized (lock) {
+                counters.add(taskCounters);
+            }
+        }
+    }
+
+    void solve(List<Face> faces) {
+        solve(CompatibilityTable.build(faces));
+    }
+
+    void solve(CompatibilityTable table) {
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SearchTask(table));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @SuppressWarnings("serial") // tasks are never serialized
+    private class SearchTask extends RecursiveAction {
+
+        private final CompatibilityTable table;
+
+        SearchTask(CompatibilityTable table) {
+            this.table = table;
+        }
+
+        @Override
+        protected void compute() {
+
+            int len = table.getFaces().size();
+            List<PermutationsTask> tasks = new ArrayList<>(len * len + 1);
+            for (int i = 1; i < len; i++) {
+                for (int j = 1; j < len; j++) {
+                    if (i != j) {
+                        tasks.add(new PermutationsTask(table, i, j));
+                    }
+                }
+            }
+            for (PermutationsTask task : tasks) {
+                task.share = 1.0 / tasks.size();
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class PermutationsTask extends RecursiveAction {
+
+        private final CompatibilityTable table;
+        private final int bottomIndex, southernIndex;
+
+        /**
+         * Share of this task in the whole search space, see {@link ProgressTracker}
+         */
+        private double share;
+
+        PermutationsTask(CompatibilityTable table, int bottomIndex, int southernIndex) {
+            this.table = table;
+            this.bottomIndex = bottomIndex;
+            this.southernIndex = southernIndex;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (control.isStopped()) {
+                return;
+            }
+
+            List<Face> faces = table.getFaces();
+            Face[] sideFaces = new Face[CubeGeometry.SIDES];
+            sideFaces[CubeSide.UPPER.ordinal()] = faces.get(0);
+            sideFaces[CubeSide.BOTTOM.ordinal()] = faces.get(bottomIndex);
+            sideFaces[CubeSide.SOUTHERN.ordinal()] = faces.get(southernIndex);
+
+            int[] faceIndices = new int[CubeGeometry.SIDES];
+            faceIndices[CubeSide.BOTTOM.ordinal()] = bottomIndex;
+            faceIndices[CubeSide.SOUTHERN.ordinal()] = southernIndex;
+
+            boolean[] used = new boolean[faces.size()];
+            used[0] = used[bottomIndex] = used[southernIndex] = true;
+
+            SearchCounters taskCounters = createCounters();
+            List<RotationsTask> tasks = new ArrayList<>();
+            collectPermutations(sideFaces, faceIndices, used, 0, tasks, taskCounters);
+            mergeCounters(taskCounters);
+            if (tasks.isEmpty() && progress != null) {
+                progress.complete(share);
+            }
+            for (RotationsTask task : tasks) {
+                task.share = share / tasks.size();
+            }
+            invokeAll(tasks);
+        }
+
+        private void collectPermutations(Face[] sideFaces, int[] faceIndices, boolean[] used, int fixedCount,
+                                         List<RotationsTask> tasks, SearchCounters taskCounters) {
+
+            if (fixedCount == FREE_SIDES.length) {
+                FaceSymmetry symmetry = table.getFaceSymmetry();
+                if (!symmetry.isCanonical(faceIndices)) {
+                    // same faces in the canonical order are visited by another task
+                    if (taskCounters != null) {
+                        taskCounters.onDuplicate();
+                    }
+                    return;
+                }
+                for (int orientation = 0; orientation < anchorOrientations; orientation++) {
+                    if (symmetry.isRepresentative(CompatibilityTable.placement(0, orientation))) {
+                        tasks.add(new RotationsTask(table, sideFaces.clone(), orientation));
+                    } else if (taskCounters != null) {
+                        taskCounters.onDuplicate();
+                    }
+                }
+            } else {
+                for (int i = 1; i < used.length; i++) {
+                    if (!used[i]) {
+                        used[i] = true;
+                        sideFaces[FREE_SIDES[fixedCount].ordinal()] = table.getFaces().get(i);
+                        faceIndices[FREE_SIDES[fixedCount].ordinal()] = i;
+                        collectPermutations(sideFaces, faceIndices, used, fixedCount + 1, tasks, taskCounters);
+                        used[i] = false;
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class RotationsTask extends RecursiveAction {
+
+        private final CompatibilityTable table;
+        private final Face[] sideFaces;
+        private final int upperOrientation;
+        private double share;
+
+        RotationsTask(CompatibilityTable table, Face[] sideFaces, int upperOrientation) {
+            this.table = table;
+            this.sideFaces = sideFaces;
+            this.upperOrientation = upperOrientation;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (control.isStopped()) {
+                return;
+            }
+
+            Cube cube = new Cube(table);
+            for (CubeSide side : CubeSide.values()) {
+                cube.setFace(side, sideFaces[side.ordinal()]);
+            }
+            cube.setFace(CubeSide.UPPER, sideFaces[CubeSide.UPPER.ordinal()],
+                    Orientation.getRotationFactor(upperOrientation), Orientation.isFlipped(upperOrientation));
+
+            // upper side is the first one
+            final SearchCounters taskCounters = createCounters();
+            cube.visitDistinctRotations(new CubeVisitor() {
+                @Override
+                public void visit(Cube cube) {
+                    if (taskCounters != null) {
+                        taskCounters.onNode();
+                    }
+                    if (cube.isConnected(taskCounters)) {
+                        synchronized (lock) {
+                            if (visitor != null) {
+                                visitor.visit(cube);
+                            }
+                        }
+                    } else if (taskCounters != null) {
+                        taskCounters.onPrune(CubeGeometry.SIDES - 1);
+                    }
+                }
+            }, 1, control, taskCounters);
+            mergeCounters(taskCounters);
+            if (progress != null) {
+                progress.complete(share);
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds all cubes, that can be assembled from any 6 pieces of a larger pool.
+ *
+ * Trying all C(M, 6) subsets of the pool is way too slow, so the search goes side by side instead,
+ * just like {@link BacktrackingSolver}, but the candidates for each side are taken from an inverted index:
+ * for each slot of a side and each edge signature (plugs at the interior points of the edge)
+ * the index lists all placements of all pieces, that have such edge at this slot.
+ * When some side is occupied, the only candidates for the adjacent side are those,
+ * that have the complementary signature at the shared edge.
+ *
+ * Before the search, the pieces, that have an edge without any complementary edge in the other pieces,
+ * are removed from the pool, because they can't be a part of any cube.
+ *
+ * Each subset of pieces is reported with its pieces in the order of their indices in the pool;
+ * the first piece is always put on the upper side, like in {@link HappyCubeSolver}.
+ *
+ * Progress is tracked by the first piece of a subset, its orientation and the piece at the second side.
+ */
+class PoolSolver {
+
+    private static final CubeSide[] SIDE_ORDER = new CubeSide[] {
+            CubeSide.UPPER, CubeSide.SOUTHERN, CubeSide.EASTERN,
+            CubeSide.NORTHERN, CubeSide.WESTERN, CubeSide.BOTTOM
+    };
+
+    /**
+     * [side][adjacent side] -> slot of the side's edge, that is shared with the adjacent side; -1 if not adjacent
+     */
+    private static final int[][] SLOTS = new int[CubeGeometry.SIDES][CubeGeometry.SIDES];
+
+    /**
+     * [side] -> side, that is adjacent to the given side and is occupied before it (see SIDE_ORDER)
+     */
+    private static final int[] LOOKUP_SIDES = new int[CubeGeometry.SIDES];
+
+    private static final int[] NO_CANDIDATES = new int[0];
+
+    private static final int[][] SIDE_VERTICES = new int[CubeGeometry.SIDES][];
+    private static final int[][] VERTEX_SIDES = new int[CubeGeometry.VERTICES][];
+    private static final int[][] VERTEX_SLOTS = new int[CubeGeometry.VERTICES][];
+
+    static {
+        for (CubeSide side : CubeSide.values()) {
+            CubeVertex[] vertices = CubeGeometry.getVertices(side);
+            SIDE_VERTICES[side.ordinal()] = new int[vertices.length];
+            for (int slot = 0; slot < vertices.length; slot++) {
+                SIDE_VERTICES[side.ordinal()][slot] = vertices[slot].ordinal();
+            }
+        }
+        for (CubeVertex vertex : CubeVertex.values()) {
+            CubeSide[] sides = CubeGeometry.getSides(vertex);
+            VERTEX_SIDES[vertex.ordinal()] = new int[sides.length];
+            VERTEX_SLOTS[vertex.ordinal()] = new int[sides.length];
+            for (int i = 0; i < sides.length; i++) {
+                VERTEX_SIDES[vertex.ordinal()][i] = sides[i].ordinal();
+                VERTEX_SLOTS[vertex.ordinal()][i] = CubeGeometry.getSlot(sides[i], vertex);
+            }
+        }
+
+        for (int[] slots : SLOTS) {
+            Arrays.fill(slots, -1);
+        }
+        for (int edge = 0; edge < CubeGeometry.EDGES; edge++) {
+            CubeSide s1 = CubeGeometry.getEdgeSide(edge, 0), s2 = CubeGeometry.getEdgeSide(edge, 1);
+            SLOTS[s1.ordinal()][s2.ordinal()] = CubeGeometry.getSlot(s1, CubeGeometry.getEdgeVertex(edge, 0));
+            SLOTS[s2.ordinal()][s1.ordinal()] = CubeGeometry.getSlot(s2, CubeGeometry.getEdgeVertex(edge, 1));
+        }
+
+        for (int level = 1; level < SIDE_ORDER.length; level++) {
+            int side = SIDE_ORDER[level].ordinal();
+            for (int previous = 0; previous < level; previous++) {
+                if (SLOTS[side][SIDE_ORDER[previous].ordinal()] >= 0) {
+                    LOOKUP_SIDES[side] = SIDE_ORDER[previous].ordinal();
+                    break;
+                }
+            }
+        }
+    }
+
+    private final List<Face> pieces;
+    private final int anchorOrientations;
+    private final PoolVisitor visitor;
+    private final SearchControl control;
+    private final SearchCounters counters;
+    private final ProgressTracker progress;
+
+    private final int edgeSize;
+    private final int wordCount;
+
+    /**
+     * Plugs of the placement's edge at the given slot, read in the side's direction (see {@link EdgeMask});
+     * the edge starts at ((placement * 4 + slot) * wordCount)
+     */
+    private final long[] sidePlugs;
+
+    /**
+     * Same as sidePlugs, but read in the opposite direction
+     */
+    private final long[] sidePlugsReverse;
+
+    /**
+     * [placement * 4 + slot] -> identifier of the signature, that is complementary to the placement's edge
+     * at the given slot (see index)
+     */
+    private final int[] complementarySignatures;
+
+    /**
+     * [slot][signature] -> placements, that have the edge with such signature at the given slot;
+     * signature is the interior of the edge, read in the opposite direction,
+     * and each distinct signature is identified by a number
+     */
+    private final int[][][] index;
+
+    private final boolean[] viable;
+    private final boolean[] used;
+    private final int[] placements;
+    private final int[] subset;
+    private final int[] subsetPlacements;
+
+    /**
+     * @param anchorOrientations Number of the first orientations of the first piece of a subset, that should be tried
+     *                           (see {@link CubeSymmetry#getAnchorOrientations(boolean)})
+     * @param control Limits of the search; each solution is counted by this solver
+     * @param counters Counters of nodes, edge checks, prunes and solutions, may be null
+     * @param progress Tracker of the placements on the first levels, may be null
+     */
+    PoolSolver(List<Face> pieces, int anchorOrientations, PoolVisitor visitor, SearchControl control,
+               SearchCounters counters, ProgressTracker progress) {
+
+        if (pieces.isEmpty()) {
+            throw new IllegalArgumentException("Pool is empty");
+        }
+        int edgeSize = pieces.get(0).getEdges().get(0).getSize();
+        for (Face piece : pieces) {
+            if (piece.getEdges().get(0).getSize() != edgeSize) {
+                throw new IllegalArgumentException("Pieces have different edge sizes");
+            }
+        }
+
+        this.pieces = pieces;
+        this.anchorOrientations = anchorOrientations;
+        this.visitor = visitor;
+        this.control = control;
+        this.counters = counters;
+        this.progress = progress;
+
+        this.edgeSize = edgeSize;
+        this.wordCount = EdgeMask.getWordCount(edgeSize);
+
+        int placementCount = pieces.size() * Orientation.COUNT;
+        this.sidePlugs = new long[placementCount * 4 * wordCount];
+        this.sidePlugsReverse = new long[placementCount * 4 * wordCount];
+        for (int placement = 0; placement < placementCount; placement++) {
+            Face piece = pieces.get(CompatibilityTable.getFaceIndex(placement));
+            int orientation = CompatibilityTable.getOrientation(placement);
+            for (int slot = 0; slot < 4; slot++) {
+                Edge edge = CompatibilityTable.getEdge(piece, orientation, slot);
+                boolean flipped = Orientation.isFlipped(orientation);
+                int offset = (placement * 4 + slot) * wordCount;
+                System.arraycopy(flipped? edge.getPlugWordsReverse() : edge.getPlugWords(), 0,
+                        sidePlugs, offset, wordCount);
+                System.arraycopy(flipped? edge.getPlugWords() : edge.getPlugWordsReverse(), 0,
+                        sidePlugsReverse, offset, wordCount);
+            }
+        }
+
+        this.complementarySignatures = new int[placementCount * 4];
+        this.index = buildIndex(placementCount);
+
+        this.viable = new boolean[pieces.size()];
+        this.used = new boolean[pieces.size()];
+        this.placements = new int[CubeGeometry.SIDES];
+        this.subset = new int[CubeGeometry.SIDES];
+        this.subsetPlacements = new int[CubeGeometry.SIDES];
+    }
+
+    private int[][][] buildIndex(int placementCount) {
+
+        long[] interiorMask = EdgeMask.interiorMask(edgeSize);
+        Map<Signature, Integer> signatures = new HashMap<>();
+
+        List<List<List<Integer>>> lists = new ArrayList<>(4 + 1);
+        for (int slot = 0; slot < 4; slot++) {
+            lists.add(new ArrayList<List<Integer>>());
+        }
+
+        for (int placement = 0; placement < placementCount; placement++) {
+            for (int slot = 0; slot < 4; slot++) {
+                int offset = (placement * 4 + slot) * wordCount;
+
+                long[] signature = new long[wordCount], complementarySignature = new long[wordCount];
+                for (int word = 0; word < wordCount; word++) {
+                    signature[word] = sidePlugsReverse[offset + word] & interiorMask[word];
+                    complementarySignature[word] = ~sidePlugs[offset + word] & interiorMask[word];
+                }
+
+                List<List<Integer>> slotLists = lists.get(slot);
+                int id = getSignatureId(signatures, signature);
+                while (slotLists.size() <= id) {
+                    slotLists.add(new ArrayList<Integer>());
+                }
+                slotLists.get(id).add(placement);
+
+                complementarySignatures[placement * 4 + slot] = getSignatureId(signatures, complementarySignature);
+            }
+        }
+
+        int[][][] index = new int[4][signatures.size()][];
+        for (int slot = 0; slot < 4; slot++) {
+            List<List<Integer>> slotLists = lists.get(slot);
+            for (int id = 0; id < signatures.size(); id++) {
+                List<Integer> list = (id < slotLists.size())? slotLists.get(id) : null;
+                if (list == null || list.isEmpty()) {
+                    index[slot][id] = NO_CANDIDATES;
+                    continue;
+                }
+                int[] candidates = new int[list.size()];
+                for (int i = 0; i < candidates.length; i++) {
+                    candidates[i] = list.get(i);
+                }
+                index[slot][id] = candidates;
+            }
+        }
+        return index;
+    }
+
+    private static int getSignatureId(Map<Signature, Integer> signatures, long[] words) {
+        Signature signature = new Signature(words);
+        Integer id = signatures.get(signature);
+        if (id == null) {
+            id = signatures.size();
+            signatures.put(signature, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return Candidates for the given slot, that have the edge, which is complementary
+     *         to the edge of the given placement at the given slot; empty array if there are none
+     */
+    private int[] getCandidates(int slot, int placement, int placementSlot) {
+        return index[slot][complementarySignatures[placement * 4 + placementSlot]];
+    }
+
+    /**
+     * Visit all solutions of all subsets
+     *
+     * @return Number of pieces, that have been removed from the pool before the search
+     */
+    int solve() {
+
+        int removed = removeUnusablePieces();
+
+        Arrays.fill(placements, -1);
+        int upper = CubeSide.UPPER.ordinal();
+        for (int anchor = 0; anchor < pieces.size() && !control.isStopped(); anchor++) {
+            if (progress != null) {
+                progress.advance(0, anchor, pieces.size());
+            }
+            if (!viable[anchor]) {
+                continue;
+            }
+            used[anchor] = true;
+            for (int orientation = 0; orientation < anchorOrientations; orientation++) {
+                if (progress != null) {
+                    progress.advance(1, orientation, anchorOrientations);
+                }
+                placements[upper] = CompatibilityTable.placement(anchor, orientation);
+                search(1, anchor);
+            }
+            placements[upper] = -1;
+            used[anchor] = false;
+        }
+        return removed;
+    }
+
+    /**
+     * A piece can't be a part of any cube, if some of its edges has no complementary edge
+     * in the other pieces, that are still in the pool.
+     */
+    private int removeUnusablePieces() {
+
+        Arrays.fill(viable, true);
+        int removed = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int piece = 0; piece < pieces.size(); piece++) {
+                if (viable[piece] && !hasComplementaryEdges(piece)) {
+                    viable[piece] = false;
+                    removed++;
+                    changed = true;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private boolean hasComplementaryEdges(int piece) {
+
+        // all edges of a piece can be found at the first slot in some orientation,
+        // so it's enough to look for the complementary edges at the first slot
+        int placement = CompatibilityTable.placement(piece, 0);
+        for (int slot = 0; slot < 4; slot++) {
+            boolean found = false;
+            for (int candidate : getCandidates(0, placement, slot)) {
+                int candidatePiece = CompatibilityTable.getFaceIndex(candidate);
+                if (candidatePiece != piece && viable[candidatePiece]) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void search(int level, int anchor) {
+
+        if (control.isStopped()) {
+            return;
+        }
+
+        if (level == SIDE_ORDER.length) {
+            visitSolution();
+            return;
+        }
+
+        int side = SIDE_ORDER[level].ordinal();
+        int lookupSide = LOOKUP_SIDES[side];
+        int[] candidates = getCandidates(SLOTS[side][lookupSide], placements[lookupSide], SLOTS[lookupSide][side]);
+        for (int i = 0; i < candidates.length; i++) {
+
+            // the anchor and its orientation are the first two levels
+            if (progress != null && level + 1 < ProgressTracker.LEVELS) {
+                progress.advance(level + 1, i, candidates.length);
+            }
+
+            int candidate = candidates[i];
+            int piece = CompatibilityTable.getFaceIndex(candidate);
+            // the first piece of each subset is the anchor
+            if (piece <= anchor || used[piece] || !viable[piece]) {
+                continue;
+            }
+
+            placements[side] = candidate;
+            if (counters != null) {
+                counters.onNode();
+            }
+            if (isConnected(side)) {
+                used[piece] = true;
+                search(level + 1, anchor);
+                used[piece] = false;
+            } else if (counters != null) {
+                counters.onPrune(level);
+            }
+
+            if (control.isStopped()) {
+                break;
+            }
+        }
+        placements[side] = -1;
+    }
+
+    /**
+     * Same as {@link CompatibilityTable#isConnected(int[], CubeSide)}
+     */
+    private boolean isConnected(int side) {
+
+        int placement = placements[side];
+        for (int adjacentSide = 0; adjacentSide < CubeGeometry.SIDES; adjacentSide++) {
+            int adjacentPlacement = placements[adjacentSide];
+            int slot = SLOTS[side][adjacentSide];
+            if (slot < 0 || adjacentPlacement < 0) {
+                continue;
+            }
+            if (counters != null) {
+                counters.onEdgeCheck();
+            }
+            if (!canConnect(placement, slot, adjacentPlacement, SLOTS[adjacentSide][side])) {
+                return false;
+            }
+        }
+
+        // the first point of the edge at some slot is the corner at this slot
+        for (int vertex : SIDE_VERTICES[side]) {
+            int[] vertexSides = VERTEX_SIDES[vertex], vertexSlots = VERTEX_SLOTS[vertex];
+            boolean hasPlug = false;
+            for (int i = 0; i < vertexSides.length; i++) {
+                int vertexPlacement = placements[vertexSides[i]];
+                if (vertexPlacement < 0 || (sidePlugs[(vertexPlacement * 4 + vertexSlots[i]) * wordCount] & 1L) != 0) {
+                    hasPlug = true;
+                    break;
+                }
+            }
+            if (!hasPlug) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same logic as in {@link CompatibilityTable}
+     */
+    private boolean canConnect(int p1, int slot1, int p2, int slot2) {
+        return EdgeMask.canConnect(sidePlugs, (p1 * 4 + slot1) * wordCount,
+                sidePlugsReverse, (p2 * 4 + slot2) * wordCount, edgeSize);
+    }
+
+    private void visitSolution() {
+
+        if (!control.onSolution()) {
+            return;
+        }
+
+        // pieces of the subset in the order of their indices; the anchor is the first one
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            subset[side] = CompatibilityTable.getFaceIndex(placements[side]);
+        }
+        Arrays.sort(subset);
+
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            int piece = CompatibilityTable.getFaceIndex(placements[side]);
+            subsetPlacements[side] = CompatibilityTable.placement(Arrays.binarySearch(subset, piece),
+                    CompatibilityTable.getOrientation(placements[side]));
+        }
+
+        long start = (counters != null)? System.nanoTime() : 0;
+        if (visitor != null) {
+            visitor.visit(subset, Solution.pack(subsetPlacements));
+        }
+        if (counters != null) {
+            // nothing is filtered, so all the time of a solution is spent in the visitor
+            long nanos = System.nanoTime() - start;
+            counters.onSolution();
+            counters.addSolutionTime(nanos);
+            counters.addVisitTime(nanos);
+        }
+    }
+
+    /**
+     * Edge signature, compared by value
+     */
+    private static final class Signature {
+
+        private final long[] words;
+        private final int hashCode;
+
+        Signature(long[] words) {
+            this.words = words;
+            this.hashCode = Arrays.hashCode(words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Signature && Arrays.equals(words, ((Signature) object).words);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package example;
+
+/**
+ * Receives solutions, that have been found in a pool of pieces, see {@link Solver#pool(java.util.List)}.
+ */
+public interface PoolVisitor {
+
+    /**
+     * @param pieces Indices of the 6 pieces in the pool, in ascending order.
+     *               The array is reused by the solver, so it must be copied, if it's needed later.
+     * @param solution Packed solution (see {@link Solution}), where face indices refer to the given array of pieces
+     */
+    void visit(int[] pieces, long solution);
+}
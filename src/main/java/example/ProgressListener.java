@@ -0,0 +1,11 @@
+package example;
+
+/**
+ * Receives periodic reports about the progress of a search,
+ * see {@link HappyCube#progressListener(ProgressListener, java.time.Duration)}.
+ * The listener may be called by different threads of a parallel search, but never concurrently.
+ */
+public interface ProgressListener {
+
+    void onProgress(SearchProgress progress);
+}
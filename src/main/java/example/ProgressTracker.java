@@ -0,0 +1,100 @@
+package example;
+
+/**
+ * Keeps track of the fraction of the search space, that has been completed,
+ * and reports it to the listener at most once per interval.
+ *
+ * Engines call the tracker only at the boundaries of the upper levels of the search tree,
+ * so that the clock is consulted rarely and the innermost loops are not affected.
+ * Engines receive null instead of a tracker, when there's no listener.
+ *
+ * Sequential engines describe their position in the tree with {@link #advance(int, int, int)};
+ * parallel engines add the shares of the finished subtrees with {@link #complete(double)}.
+ */
+class ProgressTracker {
+
+    /**
+     * Number of the upper levels of the search tree, that are tracked
+     */
+    static final int LEVELS = 3;
+
+    private final ProgressListener listener;
+    private final long intervalNanos;
+    private final SearchControl control;
+    private final long startTime;
+    private long nextReportTime;
+
+    private final int[] indices;
+    private final int[] counts;
+    private double completed;
+
+    /**
+     * @param interval Minimal time between the reports, in nanoseconds
+     * @param control Control of the search, that counts the solutions
+     */
+    ProgressTracker(ProgressListener listener, long interval, SearchControl control) {
+        this.listener = listener;
+        this.intervalNanos = interval;
+        this.control = control;
+        this.startTime = System.nanoTime();
+        this.nextReportTime = startTime + interval;
+        this.indices = new int[LEVELS];
+        this.counts = new int[LEVELS];
+    }
+
+    /**
+     * Enter the subtree with the given index on the given level; subtrees on the deeper levels are reset.
+     * Must not be called concurrently.
+     *
+     * @param count Number of subtrees on this level, within the current subtree of the upper level
+     */
+    void advance(int level, int index, int count) {
+
+        indices[level] = index;
+        counts[level] = count;
+        for (int deeperLevel = level + 1; deeperLevel < LEVELS; deeperLevel++) {
+            counts[deeperLevel] = 0;
+        }
+        long now = System.nanoTime();
+        if (now - nextReportTime >= 0) {
+            report(now, false);
+        }
+    }
+
+    /**
+     * Add the share of a subtree, that has been finished
+     */
+    synchronized void complete(double share) {
+
+        completed += share;
+        long now = System.nanoTime();
+        if (now - nextReportTime >= 0) {
+            report(now, false);
+        }
+    }
+
+    /**
+     * Send the last report, when the search has stopped
+     */
+    synchronized void finish() {
+
+        if (control.getStopReason() == StopReason.COMPLETED) {
+            completed = 1;
+            counts[0] = 0;
+        }
+        report(System.nanoTime(), true);
+    }
+
+    private synchronized void report(long now, boolean finished) {
+
+        nextReportTime = now + intervalNanos;
+
+        double fraction = completed, share = 1;
+        for (int level = 0; level < LEVELS && counts[level] > 0; level++) {
+            share /= counts[level];
+            fraction += share * indices[level];
+        }
+        listener.onProgress(new SearchProgress(Math.min(1, fraction), control.getSolutionCount(),
+                now - startTime, finished));
+    }
+}
@@ -0,0 +1,337 @@
+package example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps a domain of feasible placements (see {@link CompatibilityTable}) for each unoccupied side of a cube
+ * and narrows the domains after each placement (forward checking):
+ * - the placed face is removed from all domains;
+ * - domains of the adjacent sides keep only the placements, that can be connected with the placed face;
+ * - when two sides of a vertex are occupied and neither has a plug there,
+ *   the domain of the third side keeps only the placements, that have a plug at this vertex.
+ *
+ * A branch is dropped as soon as some domain becomes empty, and the search always continues
+ * with the side, that has the fewest candidates left. So a set of faces, that can't be assembled,
+ * usually fails after a few placements.
+ *
+ * Just like {@link BacktrackingSolver}, the first face is fixed at the upper side, in the first orientations only
+ * (see {@link CubeSymmetry#getAnchorOrientations(boolean)}), orientations of a face, that look the same,
+ * are tried only once, and identical faces occupy the sides only in the order of their indices (see {@link FaceSymmetry}).
+ */
+class PropagationSolver implements SearchEngine {
+
+    private static final CubeSide[] CUBE_SIDES = CubeSide.values();
+    private static final CubeVertex[] CUBE_VERTICES = CubeVertex.values();
+
+    /**
+     * [side] -> ordinals of the vertices of the side
+     */
+    private static final int[][] SIDE_VERTICES = new int[CubeGeometry.SIDES][];
+
+    /**
+     * [vertex] -> ordinals of the sides, that share the vertex
+     */
+    private static final int[][] VERTEX_SIDES = new int[CubeGeometry.VERTICES][];
+
+    static {
+        for (CubeSide side : CUBE_SIDES) {
+            CubeVertex[] vertices = CubeGeometry.getVertices(side);
+            int[] sideVertices = new int[vertices.length];
+            for (int slot = 0; slot < vertices.length; slot++) {
+                sideVertices[slot] = vertices[slot].ordinal();
+            }
+            SIDE_VERTICES[side.ordinal()] = sideVertices;
+        }
+        for (CubeVertex vertex : CUBE_VERTICES) {
+            CubeSide[] sides = CubeGeometry.getSides(vertex);
+            int[] vertexSides = new int[sides.length];
+            for (int i = 0; i < sides.length; i++) {
+                vertexSides[i] = sides[i].ordinal();
+            }
+            VERTEX_SIDES[vertex.ordinal()] = vertexSides;
+        }
+    }
+
+    private final CompatibilityTable table;
+    private final SearchControl control;
+    private final SearchCounters counters;
+    private final ProgressTracker progress;
+    private final int wordCount;
+
+    /**
+     * [depth][side * wordCount + word] -> bit set of placements, that are still feasible for the side
+     * after the first (depth) placements
+     */
+    private final long[][] domains;
+
+    /**
+     * [face * wordCount + word] -> bit set of all placements of the face
+     */
+    private final long[] faceMasks;
+
+    /**
+     * [face * wordCount + word] -> bit set of all placements of identical faces with lower indices
+     */
+    private final long[] lowerTwinMasks;
+
+    /**
+     * [face * wordCount + word] -> bit set of all placements of identical faces with higher indices
+     */
+    private final long[] higherTwinMasks;
+
+    /**
+     * [(side * 8 + vertex) * wordCount + word] -> bit set of placements, that have a plug at the vertex of the side
+     */
+    private final long[] plugMasks;
+
+    /**
+     * Current placements, indexed by ordinals of cube's sides; -1 for unoccupied sides
+     */
+    private final int[] placements;
+    private final Cube cube;
+
+    /**
+     * @param anchorOrientations Number of the first orientations of the first face, that should be tried
+     * @param control Limits of the search; solutions are not counted by this solver
+     * @param counters Counters of nodes, edge checks and prunes, may be null
+     * @param progress Tracker of the placements on the first levels, may be null
+     */
+    PropagationSolver(CompatibilityTable table, int anchorOrientations, SearchControl control,
+                      SearchCounters counters, ProgressTracker progress) {
+
+        if (anchorOrientations < 1 || anchorOrientations > Orientation.COUNT) {
+            throw new IllegalArgumentException("Invalid number of anchor orientations: " + anchorOrientations);
+        }
+
+        List<Face> faces = table.getFaces();
+        if (faces.size() != CubeGeometry.SIDES) {
+            throw new IllegalArgumentException("Invalid number of faces: " + faces.size() +
+                    ", must be: " + CubeGeometry.SIDES);
+        }
+
+        this.table = table;
+        this.control = control;
+        this.counters = counters;
+        this.progress = progress;
+        this.wordCount = table.getWordCount();
+
+        FaceSymmetry symmetry = table.getFaceSymmetry();
+        this.faceMasks = new long[faces.size() * wordCount];
+        this.lowerTwinMasks = new long[faces.size() * wordCount];
+        this.higherTwinMasks = new long[faces.size() * wordCount];
+        this.plugMasks = new long[CubeGeometry.SIDES * CubeGeometry.VERTICES * wordCount];
+        this.domains = new long[CubeGeometry.SIDES + 1][CubeGeometry.SIDES * wordCount];
+
+        for (int placement = 0; placement < table.getPlacementCount(); placement++) {
+            int faceIndex = CompatibilityTable.getFaceIndex(placement);
+            int word = placement / Long.SIZE;
+            long bit = 1L << placement;
+
+            faceMasks[faceIndex * wordCount + word] |= bit;
+
+            for (CubeSide side : CUBE_SIDES) {
+                for (int vertex : SIDE_VERTICES[side.ordinal()]) {
+                    if (table.hasPlug(side, placement, CUBE_VERTICES[vertex])) {
+                        plugMasks[(side.ordinal() * CubeGeometry.VERTICES + vertex) * wordCount + word] |= bit;
+                    }
+                }
+            }
+
+            if (!symmetry.isRepresentative(placement)) {
+                continue;
+            }
+            // the first face is fixed at the upper side
+            if (faceIndex == 0) {
+                if (CompatibilityTable.getOrientation(placement) < anchorOrientations) {
+                    domains[0][CubeSide.UPPER.ordinal() * wordCount + word] |= bit;
+                }
+            } else {
+                for (CubeSide side : CUBE_SIDES) {
+                    if (side != CubeSide.UPPER) {
+                        domains[0][side.ordinal() * wordCount + word] |= bit;
+                    }
+                }
+            }
+        }
+
+        for (int faceIndex = 0; faceIndex < faces.size(); faceIndex++) {
+            for (int twin = symmetry.getPreviousTwin(faceIndex); twin >= 0; twin = symmetry.getPreviousTwin(twin)) {
+                for (int word = 0; word < wordCount; word++) {
+                    lowerTwinMasks[faceIndex * wordCount + word] |= faceMasks[twin * wordCount + word];
+                    higherTwinMasks[twin * wordCount + word] |= faceMasks[faceIndex * wordCount + word];
+                }
+            }
+        }
+
+        this.placements = new int[CubeGeometry.SIDES];
+        Arrays.fill(placements, -1);
+        this.cube = new Cube(table);
+    }
+
+    @Override
+    public void solveSolutions(SolutionVisitor visitor) {
+        search(0, visitor, null);
+    }
+
+    @Override
+    public void solveCubes(CubeVisitor visitor) {
+        search(0, null, visitor);
+    }
+
+    private void search(int depth, SolutionVisitor solutionVisitor, CubeVisitor cubeVisitor) {
+
+        if (control.isStopped()) {
+            return;
+        }
+
+        if (depth == CubeGeometry.SIDES) {
+            onSolution(solutionVisitor, cubeVisitor);
+            return;
+        }
+
+        long[] domain = domains[depth];
+        int side = chooseSide(domain);
+        int count = countCandidates(domain, side);
+        int index = 0;
+        for (int word = 0; word < wordCount; word++) {
+            long candidates = domain[side * wordCount + word];
+            while (candidates != 0) {
+
+                if (progress != null && depth < ProgressTracker.LEVELS) {
+                    progress.advance(depth, index, count);
+                }
+                index++;
+
+                int placement = word * Long.SIZE + Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+
+                placements[side] = placement;
+                if (counters != null) {
+                    counters.onNode();
+                }
+                if (propagate(depth, side, placement)) {
+                    search(depth + 1, solutionVisitor, cubeVisitor);
+                } else if (counters != null) {
+                    counters.onPrune(depth);
+                }
+                placements[side] = -1;
+
+                if (control.isStopped()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Unoccupied side with the fewest candidates
+     */
+    private int chooseSide(long[] domain) {
+        int chosen = -1, chosenCount = Integer.MAX_VALUE;
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            if (placements[side] < 0) {
+                int count = countCandidates(domain, side);
+                if (count < chosenCount) {
+                    chosen = side;
+                    chosenCount = count;
+                }
+            }
+        }
+        return chosen;
+    }
+
+    private int countCandidates(long[] domain, int side) {
+        int count = 0;
+        for (int word = 0; word < wordCount; word++) {
+            count += Long.bitCount(domain[side * wordCount + word]);
+        }
+        return count;
+    }
+
+    /**
+     * Narrow the domains of the unoccupied sides after the given placement,
+     * storing them at the next depth.
+     *
+     * @return false, if some unoccupied side has no candidates left
+     *         or some vertex of the placed side can't have a plug
+     */
+    private boolean propagate(int depth, int side, int placement) {
+
+        long[] domain = domains[depth + 1];
+        System.arraycopy(domains[depth], 0, domain, 0, domain.length);
+
+        int faceIndex = CompatibilityTable.getFaceIndex(placement);
+        for (int other = 0; other < CubeGeometry.SIDES; other++) {
+            if (placements[other] >= 0) {
+                continue;
+            }
+            // identical faces must occupy the sides in the order of their indices
+            long[] twinMasks = (other < side)? higherTwinMasks : lowerTwinMasks;
+            boolean adjacent = CubeGeometry.getEdgeIndex(CUBE_SIDES[side], CUBE_SIDES[other]) >= 0;
+            if (adjacent && counters != null) {
+                counters.onEdgeCheck();
+            }
+            for (int word = 0; word < wordCount; word++) {
+                long candidates = domain[other * wordCount + word]
+                        & ~faceMasks[faceIndex * wordCount + word]
+                        & ~twinMasks[faceIndex * wordCount + word];
+                if (adjacent) {
+                    candidates &= table.getCandidates(CUBE_SIDES[side], placement, CUBE_SIDES[other], word);
+                }
+                domain[other * wordCount + word] = candidates;
+            }
+        }
+
+        // edges guarantee that there are no two plugs in the same vertex,
+        // so it only remains to ensure that each vertex has at least one plug
+        for (int vertex : SIDE_VERTICES[side]) {
+            int emptySide = -1, emptyCount = 0;
+            boolean hasPlug = false;
+            for (int vertexSide : VERTEX_SIDES[vertex]) {
+                int vertexPlacement = placements[vertexSide];
+                if (vertexPlacement < 0) {
+                    emptySide = vertexSide;
+                    emptyCount++;
+                } else if (hasPlug(vertexSide, vertexPlacement, vertex)) {
+                    hasPlug = true;
+                    break;
+                }
+            }
+            if (hasPlug || emptyCount > 1) {
+                continue;
+            }
+            if (emptyCount == 0) {
+                return false;
+            }
+            for (int word = 0; word < wordCount; word++) {
+                domain[emptySide * wordCount + word] &=
+                        plugMasks[(emptySide * CubeGeometry.VERTICES + vertex) * wordCount + word];
+            }
+        }
+
+        for (int other = 0; other < CubeGeometry.SIDES; other++) {
+            if (placements[other] < 0 && countCandidates(domain, other) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasPlug(int side, int placement, int vertex) {
+        long word = plugMasks[(side * CubeGeometry.VERTICES + vertex) * wordCount + placement / Long.SIZE];
+        return (word & (1L << placement)) != 0;
+    }
+
+    private void onSolution(SolutionVisitor solutionVisitor, CubeVisitor cubeVisitor) {
+
+        long solution = Solution.pack(placements);
+        if (solutionVisitor != null) {
+            solutionVisitor.visit(solution);
+        }
+        if (cubeVisitor != null) {
+            cube.setSolution(solution);
+            cubeVisitor.visit(cube);
+        }
+    }
+}
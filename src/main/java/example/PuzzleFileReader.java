@@ -0,0 +1,222 @@
+package example;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads puzzles from a text file, one puzzle at a time.
+ *
+ * Each face is written on a separate line as a sequence of points (see {@link Face}),
+ * with '0' for a socket and '1' for a plug, e.g. the face with the edge size of 5 takes 16 characters:
+ * <pre>
+ * # golden
+ * 0010001001010101
+ * 0010110001010101
+ * ...
+ *
+ * # another puzzle
+ * ...
+ * </pre>
+ * Puzzles are separated by one or more empty lines. Lines, that start with '#', are comments.
+ * The edge size of a face is derived from the number of points. See also {@link PuzzleFileWriter}.
+ *
+ * The file is memory-mapped in segments of 1 GB, which are mapped one after another, as the puzzles are read.
+ * Only the current puzzle is kept in memory, so files with millions of puzzles can be passed
+ * directly to {@link Solver#batch(Iterable)}.
+ *
+ * Each call to {@link #iterator()} starts reading from the beginning of the file.
+ * Iterators are not thread-safe, but several iterators can be used concurrently.
+ */
+public class PuzzleFileReader implements Iterable<List<Face>>, AutoCloseable {
+
+    private static final int SEGMENT_SIZE = 1 << 30;
+
+    private static final byte COMMENT = '#';
+
+    private final File path;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+
+    private PuzzleFileReader(File path, RandomAccessFile file) {
+        this.path = path;
+        this.file = file;
+        this.channel = file.getChannel();
+    }
+
+    public static PuzzleFileReader open(File file) {
+
+        if (file.isDirectory()) {
+            throw new IllegalArgumentException("Can't read puzzles: file is directory: " + file.getAbsolutePath());
+        }
+        try {
+            return new PuzzleFileReader(file, new RandomAccessFile(file, "r"));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException (from {@link Iterator#hasNext()} or {@link Iterator#next()}),
+     *                                  if the file contains an invalid face
+     */
+    @Override
+    public Iterator<List<Face>> iterator() {
+        try {
+            return new PuzzleIterator(channel.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + path.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private class PuzzleIterator implements Iterator<List<Face>> {
+
+        private final long size;
+
+        private MappedByteBuffer segment;
+        private long segmentStart;
+        private long position;
+
+        private long lineNumber;
+        private byte[] line;
+        private int lineLength;
+
+        private List<Face> next;
+
+        PuzzleIterator(long size) {
+            this.size = size;
+            this.line = new byte[64];
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = readPuzzle();
+            }
+            return next != null;
+        }
+
+        @Override
+        public List<Face> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Face> puzzle = next;
+            next = null;
+            return puzzle;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @return Faces of the next puzzle, or null if there are no more puzzles
+         */
+        private List<Face> readPuzzle() {
+
+            List<Face> faces = new ArrayList<>(6 + 1);
+            while (readLine()) {
+                if (lineLength > 0 && line[0] == COMMENT) {
+                    continue;
+                }
+                if (lineLength == 0) {
+                    if (!faces.isEmpty()) {
+                        return faces;
+                    }
+                    continue;
+                }
+
+                Face face = parseFace();
+                if (!faces.isEmpty() && face.getEdges().get(0).getSize() != faces.get(0).getEdges().get(0).getSize()) {
+                    throw invalidFace("edge size differs from other faces of the puzzle", null);
+                }
+                faces.add(face);
+            }
+            return faces.isEmpty()? null : faces;
+        }
+
+        private Face parseFace() {
+
+            if (lineLength % 4 != 0) {
+                throw invalidFace("number of points must be a multiple of 4: " + lineLength, null);
+            }
+            byte[] points = new byte[lineLength];
+            for (int i = 0; i < lineLength; i++) {
+                if (line[i] == '0') {
+                    points[i] = 0;
+                } else if (line[i] == '1') {
+                    points[i] = 1;
+                } else {
+                    throw invalidFace("unexpected character: '" + (char) line[i] + "'", null);
+                }
+            }
+
+            try {
+                return new Face(points, lineLength / 4 + 1);
+            } catch (RuntimeException e) {
+                throw invalidFace(e.getMessage(), e);
+            }
+        }
+
+        private IllegalArgumentException invalidFace(String message, Throwable cause) {
+            return new IllegalArgumentException("Invalid face at line " + lineNumber
+                    + " of file " + path.getAbsolutePath() + ": " + message, cause);
+        }
+
+        /**
+         * Read the next line into the buffer, without the line separator
+         *
+         * @return false, if the end of file has been reached
+         */
+        private boolean readLine() {
+
+            if (position >= size) {
+                return false;
+            }
+            lineNumber++;
+            lineLength = 0;
+            while (position < size) {
+                byte b = readByte();
+                if (b == '\n') {
+                    break;
+                }
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[lineLength++] = b;
+            }
+            if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                lineLength--;
+            }
+            return true;
+        }
+
+        private byte readByte() {
+
+            if (segment == null || position - segmentStart >= segment.capacity()) {
+                segmentStart = position;
+                try {
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart,
+                            Math.min(SEGMENT_SIZE, size - segmentStart));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to read file: " + path.getAbsolutePath(), e);
+                }
+            }
+            return segment.get((int) (position++ - segmentStart));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package example;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes puzzles to a text file, that can be read by {@link PuzzleFileReader}.
+ */
+public class PuzzleFileWriter implements AutoCloseable {
+
+    private final Writer writer;
+    private boolean empty;
+
+    private PuzzleFileWriter(Writer writer) {
+        this.writer = writer;
+        this.empty = true;
+    }
+
+    public static PuzzleFileWriter create(File file) {
+
+        if (file.isDirectory()) {
+            throw new IllegalArgumentException("Can't write puzzles: file is directory: " + file.getAbsolutePath());
+        }
+        try {
+            return new PuzzleFileWriter(new BufferedWriter(new FileWriter(file)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    public void writePuzzle(List<Face> faces) throws IOException {
+
+        if (faces.isEmpty()) {
+            throw new IllegalArgumentException("Can't write puzzle: no faces");
+        }
+        if (!empty) {
+            writer.write('\n');
+        }
+        for (Face face : faces) {
+            for (Edge edge : face.getEdges()) {
+                // the last point of each edge is the first point of the next edge
+                byte[] points = edge.getPoints();
+                for (int i = 0; i < points.length - 1; i++) {
+                    writer.write(points[i] == 0? '0' : '1');
+                }
+            }
+            writer.write('\n');
+        }
+        empty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+        writer.close();
+    }
+}
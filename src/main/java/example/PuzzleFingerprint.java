@@ -0,0 +1,257 @@
+package example;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Identifies a puzzle regardless of the order of its faces and of the orientations, in which the faces are given.
+ *
+ * Each face is replaced with its canonical form: the least (lexicographically) sequence of points
+ * among the 8 orientations of the face (see {@link Orientation}). Canonical faces are sorted,
+ * and two puzzles have equal fingerprints, if they have the same canonical faces.
+ *
+ * Solutions, that have been found for the canonical faces (see {@link #getCanonicalFaces()}),
+ * can be converted to solutions for the original list of faces, see {@link #toOriginalSolution(long)}.
+ *
+ * Instances are immutable.
+ */
+public final class PuzzleFingerprint {
+
+    /**
+     * [t][o] -> orientation of the original face, that is the same as the orientation o of the canonical face,
+     * when the canonical face is the original face in the orientation t
+     */
+    private static final int[][] COMPOSITIONS = new int[Orientation.COUNT][Orientation.COUNT];
+
+    static {
+        for (int t = 0; t < Orientation.COUNT; t++) {
+            for (int o = 0; o < Orientation.COUNT; o++) {
+                COMPOSITIONS[t][o] = findComposition(t, o);
+            }
+        }
+    }
+
+    private static int findComposition(int t, int o) {
+
+        boolean flipped = Orientation.isFlipped(t) ^ Orientation.isFlipped(o);
+        for (int composition = 0; composition < Orientation.COUNT; composition++) {
+            if (Orientation.isFlipped(composition) != flipped) {
+                continue;
+            }
+            boolean matches = true;
+            for (int slot = 0; slot < 4; slot++) {
+                int edge = CubeGeometry.getFaceEdgeIndex(t, CubeGeometry.getFaceEdgeIndex(o, slot));
+                if (CubeGeometry.getFaceEdgeIndex(composition, slot) != edge) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                return composition;
+            }
+        }
+        throw new IllegalStateException("Orientations can't be composed: " + t + ", " + o);
+    }
+
+    /**
+     * @return Orientation of a face, that is the same as the orientation o of this face in the orientation t
+     */
+    static int compose(int t, int o) {
+        return COMPOSITIONS[t][o];
+    }
+
+    private final int edgeSize;
+
+    /**
+     * Points of canonical faces in ascending order
+     */
+    private final byte[][] canonicalPoints;
+
+    /**
+     * [canonical face index] -> index of the original face
+     */
+    private final int[] faceIndices;
+
+    /**
+     * [canonical face index] -> orientation of the original face, in which it has the canonical sequence of points
+     */
+    private final int[] orientations;
+
+    private final int hashCode;
+
+    private List<Face> canonicalFaces;
+
+    private PuzzleFingerprint(int edgeSize, byte[][] canonicalPoints, int[] faceIndices, int[] orientations) {
+        this.edgeSize = edgeSize;
+        this.canonicalPoints = canonicalPoints;
+        this.faceIndices = faceIndices;
+        this.orientations = orientations;
+        this.hashCode = 31 * edgeSize + Arrays.deepHashCode(canonicalPoints);
+    }
+
+    public static PuzzleFingerprint of(List<Face> faces) {
+
+        if (faces.isEmpty()) {
+            throw new IllegalArgumentException("Can't build fingerprint: no faces");
+        }
+        int edgeSize = faces.get(0).getEdges().get(0).getSize();
+
+        final byte[][] points = new byte[faces.size()][];
+        int[] faceOrientations = new int[faces.size()];
+        for (int i = 0; i < faces.size(); i++) {
+            Face face = faces.get(i);
+            if (face.getEdges().get(0).getSize() != edgeSize) {
+                throw new IllegalArgumentException("Can't build fingerprint: faces have different edge sizes");
+            }
+            for (int orientation = 0; orientation < Orientation.COUNT; orientation++) {
+                byte[] candidate = getPoints(face, orientation);
+                if (points[i] == null || compare(candidate, points[i]) < 0) {
+                    points[i] = candidate;
+                    faceOrientations[i] = orientation;
+                }
+            }
+        }
+
+        // stable sort, so that equal faces keep their original order
+        Integer[] order = new Integer[faces.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i1, Integer i2) {
+                return PuzzleFingerprint.compare(points[i1], points[i2]);
+            }
+        });
+
+        byte[][] canonicalPoints = new byte[order.length][];
+        int[] faceIndices = new int[order.length], orientations = new int[order.length];
+        for (int j = 0; j < order.length; j++) {
+            canonicalPoints[j] = points[order[j]];
+            faceIndices[j] = order[j];
+            orientations[j] = faceOrientations[order[j]];
+        }
+        return new PuzzleFingerprint(edgeSize, canonicalPoints, faceIndices, orientations);
+    }
+
+    /**
+     * @return Points of the face, as they are seen in the given orientation, starting with the first slot of a side
+     *         (same logic as in {@link ConfigurationWriter})
+     */
+    static byte[] getPoints(Face face, int orientation) {
+
+        List<Edge> edges = face.getEdges();
+        int edgeSize = edges.get(0).getSize();
+        byte[] points = new byte[4 * edgeSize - 4];
+        for (int slot = 0; slot < 4; slot++) {
+            Edge edge = edges.get(CubeGeometry.getFaceEdgeIndex(orientation, slot));
+            byte[] edgePoints = Orientation.isFlipped(orientation)? edge.getPointsReverse() : edge.getPoints();
+            // the last point of each edge is the first point of the next edge
+            System.arraycopy(edgePoints, 0, points, slot * (edgeSize - 1), edgeSize - 1);
+        }
+        return points;
+    }
+
+    private static int compare(byte[] points1, byte[] points2) {
+        for (int i = 0; i < points1.length; i++) {
+            if (points1[i] != points2[i]) {
+                return points1[i] - points2[i];
+            }
+        }
+        return 0;
+    }
+
+    public int getEdgeSize() {
+        return edgeSize;
+    }
+
+    /**
+     * @return Faces in canonical form, sorted; created on the first call
+     */
+    public synchronized List<Face> getCanonicalFaces() {
+        if (canonicalFaces == null) {
+            List<Face> faces = new ArrayList<>(canonicalPoints.length + 1);
+            for (byte[] points : canonicalPoints) {
+                faces.add(new Face(points.clone(), edgeSize));
+            }
+            canonicalFaces = Collections.unmodifiableList(faces);
+        }
+        return canonicalFaces;
+    }
+
+    /**
+     * @return true, if the face has the same points as the canonical face with the given index
+     */
+    boolean isCanonicalFace(int index, Face face) {
+        return face.getEdges().get(0).getSize() == edgeSize && Arrays.equals(canonicalPoints[index], getPoints(face, 0));
+    }
+
+    /**
+     * @param solution Packed solution for the canonical faces (see {@link Solution})
+     * @return Same solution for the original list of faces
+     */
+    public long toOriginalSolution(long solution) {
+
+        long originalSolution = 0;
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            int placement = Solution.getPlacement(solution, side);
+            int face = CompatibilityTable.getFaceIndex(placement);
+            int orientation = COMPOSITIONS[orientations[face]][CompatibilityTable.getOrientation(placement)];
+            originalSolution |= (long) CompatibilityTable.placement(faceIndices[face], orientation)
+                    << (side * Solution.BITS_PER_SIDE);
+        }
+        return originalSolution;
+    }
+
+    /**
+     * @return Hexadecimal SHA-256 hash of the canonical faces, e.g. to be used as a file name
+     */
+    public String getDigest() {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to compute digest", e);
+        }
+        digest.update(Integer.toString(edgeSize).getBytes(StandardCharsets.US_ASCII));
+        for (byte[] points : canonicalPoints) {
+            digest.update((byte) ':');
+            digest.update(points);
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || !getClass().equals(object.getClass())) {
+            return false;
+        }
+        PuzzleFingerprint that = (PuzzleFingerprint) object;
+        return edgeSize == that.edgeSize && Arrays.deepEquals(canonicalPoints, that.canonicalPoints);
+    }
+
+    @Override
+    public String toString() {
+        return getDigest();
+    }
+}
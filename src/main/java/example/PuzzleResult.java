@@ -0,0 +1,58 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solutions of one puzzle from a batch.
+ * Solutions are kept in the packed form (see {@link Solution}) and are decoded on request.
+ */
+public class PuzzleResult {
+
+    private final int index;
+    private final List<Face> faces;
+    private final long[] solutions;
+
+    PuzzleResult(int index, List<Face> faces, long[] solutions) {
+        this.index = index;
+        this.faces = faces;
+        this.solutions = solutions;
+    }
+
+    /**
+     * @return Index of the puzzle in the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public List<Face> getFaces() {
+        return faces;
+    }
+
+    public int getSolutionCount() {
+        return solutions.length;
+    }
+
+    /**
+     * @return Packed solution with the given index, see {@link Solution}
+     */
+    public long getPackedSolution(int index) {
+        return solutions[index];
+    }
+
+    /**
+     * @return Configurations of all solutions; they are built on each call
+     */
+    public List<Configuration> getSolutions() {
+        List<Configuration> configurations = new ArrayList<>(solutions.length + 1);
+        for (long solution : solutions) {
+            configurations.add(Configuration.fromSolution(solution, faces));
+        }
+        return configurations;
+    }
+
+    public boolean isSolvable() {
+        return solutions.length > 0;
+    }
+}
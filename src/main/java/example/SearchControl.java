@@ -0,0 +1,99 @@
+package example;
+
+import java.time.Duration;
+
+/**
+ * Checks, whether the search should be stopped: when the limit of solutions has been reached,
+ * when the deadline has passed or when the search has been cancelled.
+ *
+ * {@link #isStopped()} is called at each step of the search, so it must be cheap:
+ * the clock is consulted only once in {@link #CLOCK_CHECK_INTERVAL} calls.
+ * Solutions must be counted by a single thread at a time, other methods are thread-safe.
+ */
+class SearchControl {
+
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    /**
+     * @return Control, that never stops the search
+     */
+    static SearchControl unlimited() {
+        return new SearchControl(Long.MAX_VALUE, null, null);
+    }
+
+    private final long limit;
+    private final boolean hasDeadline;
+    private final long deadline;
+    private final CancellationToken cancellationToken;
+
+    private volatile StopReason stopReason;
+    private long solutions;
+    private int steps;
+
+    /**
+     * @param limit Maximum number of solutions
+     * @param timeout Maximum duration of the search, counted from now, or null
+     * @param cancellationToken Token, that can be used to cancel the search, or null
+     */
+    SearchControl(long limit, Duration timeout, CancellationToken cancellationToken) {
+        this.limit = limit;
+        this.hasDeadline = (timeout != null);
+        this.deadline = hasDeadline? System.nanoTime() + timeout.toNanos() : 0;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * @return true, if the search should be stopped
+     */
+    boolean isStopped() {
+
+        if (stopReason != null) {
+            return true;
+        }
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            stop(StopReason.CANCELLED);
+            return true;
+        }
+        // steps are not counted precisely, when called concurrently, which is fine
+        if (hasDeadline && (++steps % CLOCK_CHECK_INTERVAL) == 0 && System.nanoTime() - deadline >= 0) {
+            stop(StopReason.TIMED_OUT);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Count the next solution. Must not be called concurrently.
+     *
+     * @return false, if the search has been stopped and the solution should be dropped
+     */
+    boolean onSolution() {
+
+        if (isStopped()) {
+            return false;
+        }
+        if (++solutions >= limit) {
+            stop(StopReason.LIMIT_REACHED);
+        }
+        return true;
+    }
+
+    /**
+     * @return Number of solutions, that have been counted so far;
+     *         may be stale, when called by a thread, that doesn't count the solutions
+     */
+    long getSolutionCount() {
+        return solutions;
+    }
+
+    private synchronized void stop(StopReason reason) {
+        if (stopReason == null) {
+            stopReason = reason;
+        }
+    }
+
+    StopReason getStopReason() {
+        StopReason reason = stopReason;
+        return (reason == null)? StopReason.COMPLETED : reason;
+    }
+}
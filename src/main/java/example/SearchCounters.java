@@ -0,0 +1,75 @@
+package example;
+
+/**
+ * Mutable counters of a search, see {@link SearchMetrics}.
+ * Engines receive null instead of counters, when the metrics are not needed,
+ * so that disabled counters cost a single null check.
+ *
+ * Not thread-safe: concurrent subtasks keep their own counters and merge them with {@link #add(SearchCounters)}.
+ */
+class SearchCounters {
+
+    private long nodes;
+    private long edgeChecks;
+    private final long[] prunes = new long[CubeGeometry.SIDES];
+    private long solutions;
+    private long duplicatesRejected;
+
+    /**
+     * Time spent in handling the solutions, including the time spent in the visitors
+     */
+    private long solutionNanos;
+    private long visitNanos;
+
+    void onNode() {
+        nodes++;
+    }
+
+    void onEdgeCheck() {
+        edgeChecks++;
+    }
+
+    /**
+     * @param depth Index of the side, that has failed to connect, in the order of occupation
+     */
+    void onPrune(int depth) {
+        prunes[depth]++;
+    }
+
+    void onSolution() {
+        solutions++;
+    }
+
+    void onDuplicate() {
+        duplicatesRejected++;
+    }
+
+    void addSolutionTime(long nanos) {
+        solutionNanos += nanos;
+    }
+
+    void addVisitTime(long nanos) {
+        visitNanos += nanos;
+    }
+
+    void add(SearchCounters counters) {
+        nodes += counters.nodes;
+        edgeChecks += counters.edgeChecks;
+        for (int depth = 0; depth < prunes.length; depth++) {
+            prunes[depth] += counters.prunes[depth];
+        }
+        solutions += counters.solutions;
+        duplicatesRejected += counters.duplicatesRejected;
+        solutionNanos += counters.solutionNanos;
+        visitNanos += counters.visitNanos;
+    }
+
+    /**
+     * @param totalNanos Duration of the whole search
+     */
+    SearchMetrics toMetrics(SolverEngine engine, long totalNanos, StopReason stopReason) {
+        long searchNanos = Math.max(0, totalNanos - solutionNanos);
+        return new SearchMetrics(engine, nodes, edgeChecks, prunes.clone(), solutions, duplicatesRejected,
+                searchNanos, solutionNanos - visitNanos, visitNanos, stopReason);
+    }
+}
@@ -0,0 +1,18 @@
+package example;
+
+/**
+ * Search of the solutions of a single puzzle, that places one face at a time (see {@link SolverEngine}).
+ * Instances are created for a single search and are not thread-safe.
+ */
+interface SearchEngine {
+
+    /**
+     * Visit all solutions in the packed form, without updating the cube
+     */
+    void solveSolutions(SolutionVisitor visitor);
+
+    /**
+     * Visit all connected cubes; the same cube is updated for each solution
+     */
+    void solveCubes(CubeVisitor visitor);
+}
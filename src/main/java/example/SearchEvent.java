@@ -0,0 +1,82 @@
+package example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event, that is committed at the end of each search with the metrics of the search
+ * (see {@link SearchMetrics}). Counters are collected only when the event is enabled in some recording,
+ * e.g. with {@code -XX:StartFlightRecording}, or when a {@link MetricsListener} is set.
+ *
+ * This class is loaded only if jdk.jfr is available (it's missing on some Java 8 runtimes),
+ * so it must not be referenced directly; see {@link Solver}.
+ */
+@Name("example.Search")
+@Label("Happy Cube Search")
+@Category("Happy Cube")
+@Description("Search for the solutions of a single puzzle")
+class SearchEvent extends Event implements SearchRecorder {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Stop Reason")
+    String stopReason;
+
+    @Label("Nodes")
+    @Description("Candidates, that have been checked for connectivity")
+    long nodes;
+
+    @Label("Edge Checks")
+    long edgeChecks;
+
+    @Label("Prunes")
+    long prunes;
+
+    @Label("Solutions")
+    long solutions;
+
+    @Label("Duplicates Rejected")
+    long duplicatesRejected;
+
+    @Label("Filter Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long filterTime;
+
+    @Label("Visit Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long visitTime;
+
+    /**
+     * @return Started event, or null if the event is not enabled in any recording
+     */
+    static SearchEvent start() {
+        SearchEvent event = new SearchEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(SearchMetrics metrics) {
+        end();
+        if (shouldCommit()) {
+            engine = (metrics.getEngine() != null)? metrics.getEngine().name() : "POOL";
+            stopReason = metrics.getStopReason().name();
+            nodes = metrics.getNodes();
+            edgeChecks = metrics.getEdgeChecks();
+            prunes = metrics.getPrunes();
+            solutions = metrics.getSolutions();
+            duplicatesRejected = metrics.getDuplicatesRejected();
+            filterTime = metrics.getFilterTime().toNanos();
+            visitTime = metrics.getVisitTime().toNanos();
+            commit();
+        }
+    }
+}
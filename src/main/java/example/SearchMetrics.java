@@ -0,0 +1,129 @@
+package example;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Counters and timings of a single search, see {@link HappyCube#metricsListener(MetricsListener)}.
+ *
+ * Time of the search is split into three phases, that add up to the total time:
+ * - search: building and checking candidate cubes;
+ * - filter: restoring the solutions, that are equivalent to the found ones (see {@link FaceSymmetry}),
+ *   and checking the limits of the search;
+ * - visit: time spent in the visitors, e.g. writing the solutions.
+ */
+public final class SearchMetrics {
+
+    private final SolverEngine engine;
+    private final long nodes;
+    private final long edgeChecks;
+    private final long[] prunes;
+    private final long solutions;
+    private final long duplicatesRejected;
+    private final long searchNanos;
+    private final long filterNanos;
+    private final long visitNanos;
+    private final StopReason stopReason;
+
+    SearchMetrics(SolverEngine engine, long nodes, long edgeChecks, long[] prunes, long solutions,
+                  long duplicatesRejected, long searchNanos, long filterNanos, long visitNanos, StopReason stopReason) {
+        this.engine = engine;
+        this.nodes = nodes;
+        this.edgeChecks = edgeChecks;
+        this.prunes = prunes;
+        this.solutions = solutions;
+        this.duplicatesRejected = duplicatesRejected;
+        this.searchNanos = searchNanos;
+        this.filterNanos = filterNanos;
+        this.visitNanos = visitNanos;
+        this.stopReason = stopReason;
+    }
+
+    /**
+     * @return Engine of the search, or null for a search in a pool of pieces (see {@link Solver#pool(java.util.List)})
+     */
+    public SolverEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return Number of candidates (partially or completely occupied cubes), that have been checked for connectivity
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return Number of pairs of adjacent sides, that have been checked for connectivity
+     */
+    public long getEdgeChecks() {
+        return edgeChecks;
+    }
+
+    /**
+     * @param depth Index of the side, that has failed to connect, in the order of occupation (0 to 5);
+     *              the permutations engine checks only complete cubes, so all its prunes have depth 5
+     * @return Number of candidates, that have been dropped at the given depth
+     */
+    public long getPrunes(int depth) {
+        if (depth < 0 || depth >= prunes.length) {
+            throw new IllegalArgumentException("Invalid depth: " + depth);
+        }
+        return prunes[depth];
+    }
+
+    /**
+     * @return Number of candidates, that have been dropped at all depths
+     */
+    public long getPrunes() {
+        long total = 0;
+        for (long count : prunes) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return Number of solutions, that have been passed to the visitors
+     */
+    public long getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * @return Number of candidates, that have been skipped as duplicates of other candidates:
+     *         identical faces in another order or orientations, that look the same (see {@link FaceSymmetry})
+     */
+    public long getDuplicatesRejected() {
+        return duplicatesRejected;
+    }
+
+    public Duration getSearchTime() {
+        return Duration.ofNanos(searchNanos);
+    }
+
+    public Duration getFilterTime() {
+        return Duration.ofNanos(filterNanos);
+    }
+
+    public Duration getVisitTime() {
+        return Duration.ofNanos(visitNanos);
+    }
+
+    public Duration getTotalTime() {
+        return Duration.ofNanos(searchNanos + filterNanos + visitNanos);
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchMetrics{engine=" + engine + ", nodes=" + nodes + ", edgeChecks=" + edgeChecks
+                + ", prunes=" + Arrays.toString(prunes) + ", solutions=" + solutions
+                + ", duplicatesRejected=" + duplicatesRejected + ", searchTime=" + getSearchTime()
+                + ", filterTime=" + getFilterTime() + ", visitTime=" + getVisitTime()
+                + ", stopReason=" + stopReason + "}";
+    }
+}
@@ -0,0 +1,77 @@
+package example;
+
+import java.time.Duration;
+
+/**
+ * Progress of a search: the fraction of the search space, that has been completed, see {@link ProgressListener}.
+ *
+ * The search space is split into the top-level subtrees (e.g. choices of faces for the bottom and southern sides),
+ * and those are split into deeper subtrees; each subtree is assumed to take an equal share of its parent.
+ * So the estimated time remaining is only as accurate as the subtrees are balanced.
+ */
+public final class SearchProgress {
+
+    private final double completed;
+    private final long solutions;
+    private final long elapsedNanos;
+    private final boolean finished;
+
+    SearchProgress(double completed, long solutions, long elapsedNanos, boolean finished) {
+        this.completed = completed;
+        this.solutions = solutions;
+        this.elapsedNanos = elapsedNanos;
+        this.finished = finished;
+    }
+
+    /**
+     * @return Fraction of the search space, that has been completed, from 0 to 1
+     */
+    public double getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return Number of solutions, that have been found so far
+     */
+    public long getSolutions() {
+        return solutions;
+    }
+
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * @return Fraction of the search space, that is completed per second on average
+     */
+    public double getThroughput() {
+        return (elapsedNanos == 0)? 0 : completed / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * @return Estimated time remaining at the average throughput, or null if nothing has been completed yet
+     */
+    public Duration getEstimatedTimeRemaining() {
+        if (finished) {
+            return Duration.ZERO;
+        }
+        if (completed <= 0) {
+            return null;
+        }
+        return Duration.ofNanos((long) (elapsedNanos * (1 - completed) / completed));
+    }
+
+    /**
+     * @return true, if this is the last report: the search has stopped
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchProgress{completed=%.2f%%, solutions=%d, elapsedTime=%s, " +
+                "estimatedTimeRemaining=%s, finished=%s}",
+                completed * 100, solutions, getElapsedTime(), getEstimatedTimeRemaining(), finished);
+    }
+}
@@ -0,0 +1,13 @@
+package example;
+
+/**
+ * Recorder of the metrics of a single search, that is started before the search
+ * and committed after it has stopped (see {@link SearchEvent}).
+ *
+ * The recorder doesn't depend on jdk.jfr, so that the searches and the metrics listeners also work
+ * on runtimes, that don't have the flight recorder.
+ */
+interface SearchRecorder {
+
+    void commit(SearchMetrics metrics);
+}
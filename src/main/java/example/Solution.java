@@ -0,0 +1,137 @@
+package example;
+
+import java.util.List;
+
+/**
+ * Compact representation of a connected cube.
+ *
+ * For each side of the cube, the index of the face (in the list of faces of the puzzle),
+ * its rotation factor and flip are packed into 10 bits of a single long value:
+ * bits [side * 10, side * 10 + 10) contain (face index * 8 + orientation), see {@link CompatibilityTable}
+ * and {@link Orientation}. Sides are ordered by their ordinals.
+ *
+ * Packed values can be decoded via static methods of this class without any allocation;
+ * instances of this class associate a packed value with the list of faces.
+ */
+public final class Solution {
+
+    static final int BITS_PER_SIDE = 10;
+    private static final long SIDE_MASK = (1L << BITS_PER_SIDE) - 1;
+
+    /**
+     * Maximum number of faces in the puzzle, that can be encoded in a packed solution
+     */
+    public static final int MAX_FACES = (1 << BITS_PER_SIDE) / Orientation.COUNT;
+
+    /**
+     * @param placements Placements (see {@link CompatibilityTable}), indexed by ordinals of cube's sides
+     * @return Packed solution
+     */
+    public static long pack(int[] placements) {
+
+        if (placements.length != CubeGeometry.SIDES) {
+            throw new IllegalArgumentException("Invalid number of placements: " + placements.length);
+        }
+
+        long solution = 0;
+        for (int side = 0; side < CubeGeometry.SIDES; side++) {
+            solution |= (long) placements[side] << (side * BITS_PER_SIDE);
+        }
+        return solution;
+    }
+
+    /**
+     * @return Placement of the face at the given side (see {@link CompatibilityTable})
+     */
+    public static int getPlacement(long solution, CubeSide side) {
+        return getPlacement(solution, side.ordinal());
+    }
+
+    static int getPlacement(long solution, int side) {
+        return (int) ((solution >>> (side * BITS_PER_SIDE)) & SIDE_MASK);
+    }
+
+    /**
+     * @return Index of the face at the given side in the list of faces of the puzzle
+     */
+    public static int getFaceIndex(long solution, CubeSide side) {
+        return CompatibilityTable.getFaceIndex(getPlacement(solution, side));
+    }
+
+    public static int getRotationFactor(long solution, CubeSide side) {
+        return Orientation.getRotationFactor(CompatibilityTable.getOrientation(getPlacement(solution, side)));
+    }
+
+    public static boolean isFlipped(long solution, CubeSide side) {
+        return Orientation.isFlipped(CompatibilityTable.getOrientation(getPlacement(solution, side)));
+    }
+
+    private final List<Face> faces;
+    private final long value;
+    private Configuration configuration;
+
+    /**
+     * @param faces Faces of the puzzle, that the solution has been found for
+     * @param value Packed solution
+     */
+    public Solution(List<Face> faces, long value) {
+        this.faces = faces;
+        this.value = value;
+    }
+
+    public List<Face> getFaces() {
+        return faces;
+    }
+
+    /**
+     * @return Packed solution
+     */
+    public long getValue() {
+        return value;
+    }
+
+    public Face getFace(CubeSide side) {
+        return faces.get(getFaceIndex(value, side));
+    }
+
+    public int getRotationFactor(CubeSide side) {
+        return getRotationFactor(value, side);
+    }
+
+    public boolean isFlipped(CubeSide side) {
+        return isFlipped(value, side);
+    }
+
+    /**
+     * @return Configuration of the cube; it's built on the first call
+     */
+    public Configuration toConfiguration() {
+        if (configuration == null) {
+            configuration = Configuration.fromSolution(value, faces);
+        }
+        return configuration;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (value ^ (value >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || !Solution.class.equals(object.getClass())) {
+            return false;
+        }
+        if (object == this) {
+            return true;
+        }
+
+        Solution that = (Solution) object;
+        return value == that.value && faces.equals(that.faces);
+    }
+
+    @Override
+    public String toString() {
+        return "Solution{" + Long.toHexString(value) + "}";
+    }
+}
@@ -0,0 +1,29 @@
+package example;
+
+import java.util.Arrays;
+
+/**
+ * Collects packed solutions (see {@link Solution}) into a growing array.
+ *
+ * Must not be called concurrently.
+ */
+class SolutionBuffer implements SolutionVisitor {
+
+    private long[] solutions = new long[16];
+    private int count;
+
+    @Override
+    public void visit(long solution) {
+        if (count == solutions.length) {
+            solutions = Arrays.copyOf(solutions, count * 2);
+        }
+        solutions[count++] = solution;
+    }
+
+    /**
+     * @return New array with the solutions in the order, in which they have been visited
+     */
+    long[] toArray() {
+        return Arrays.copyOf(solutions, count);
+    }
+}
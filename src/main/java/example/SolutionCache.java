@@ -0,0 +1,259 @@
+package example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers solutions of puzzles, so that the same puzzle is solved only once,
+ * even when its faces are given in a different order or orientation (see {@link PuzzleFingerprint}).
+ *
+ * For each puzzle, only the solutions, that are not symmetric to each other, are found and stored
+ * for the canonical faces of the puzzle. On each request, they are converted to the caller's list of faces,
+ * and rotated, so that the first face is at the upper side, which gives exactly the same solutions,
+ * that the solver would find for the caller's list of faces.
+ *
+ * The least recently used puzzles are evicted from memory, when the number of puzzles exceeds the limit.
+ * Optionally, solutions are also stored in a directory as binary files (see {@link SolutionFileWriter}),
+ * one file per puzzle, which are shared by all caches, that use the same directory.
+ *
+ * The cache can be shared between threads.
+ */
+public class SolutionCache {
+
+    public static final int DEFAULT_MAX_PUZZLES = 1024;
+
+    private static final String FILE_EXTENSION = ".cubes";
+
+    /**
+     * [side] -> 4 rotations of the cube, that move the given side to the upper side
+     */
+    private static final int[][] UPPER_ROTATIONS = new int[CubeGeometry.SIDES][4];
+
+    static {
+        int[] counts = new int[CubeGeometry.SIDES];
+        for (int rotation = 0; rotation < CubeSymmetry.ROTATIONS; rotation++) {
+            for (int side = 0; side < CubeGeometry.SIDES; side++) {
+                if (CubeSymmetry.getMovedSide(rotation, side) == CubeSide.UPPER.ordinal()) {
+                    UPPER_ROTATIONS[side][counts[side]++] = rotation;
+                }
+            }
+        }
+    }
+
+    private final File directory;
+    private final Map<PuzzleFingerprint, long[]> entries;
+
+    private long hitCount;
+    private long missCount;
+
+    private SolutionCache(final int maxPuzzles, File directory) {
+        this.directory = directory;
+        this.entries = new LinkedHashMap<PuzzleFingerprint, long[]>((int)(Math.min(maxPuzzles, DEFAULT_MAX_PUZZLES) / 0.75), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PuzzleFingerprint, long[]> eldest) {
+                return size() > maxPuzzles;
+            }
+        };
+    }
+
+    public static SolutionCache inMemory() {
+        return inMemory(DEFAULT_MAX_PUZZLES);
+    }
+
+    /**
+     * @param maxPuzzles Maximum number of puzzles, that are kept in memory
+     */
+    public static SolutionCache inMemory(int maxPuzzles) {
+        if (maxPuzzles < 1) {
+            throw new IllegalArgumentException("Invalid number of puzzles: " + maxPuzzles);
+        }
+        return new SolutionCache(maxPuzzles, null);
+    }
+
+    /**
+     * @param maxPuzzles Maximum number of puzzles, that are kept in memory
+     * @param directory Directory for the files with solutions; created, if it does not exist
+     */
+    public static SolutionCache withDirectory(int maxPuzzles, File directory) {
+
+        if (maxPuzzles < 1) {
+            throw new IllegalArgumentException("Invalid number of puzzles: " + maxPuzzles);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException("Failed to create directory: " + directory.getAbsolutePath());
+        }
+        return new SolutionCache(maxPuzzles, directory);
+    }
+
+    /**
+     * @return All solutions of the puzzle (see {@link Solution}), in the caller's list of faces
+     */
+    public long[] getSolutions(List<Face> faces) {
+        return getSolutions(faces, Orientation.COUNT);
+    }
+
+    /**
+     * @return Solutions of the puzzle, that are not symmetric to each other, in the caller's list of faces
+     * @see HappyCube#uniqueSolutions()
+     */
+    public long[] getUniqueSolutions(List<Face> faces) {
+        return getSolutions(faces, CubeSymmetry.getAnchorOrientations(false));
+    }
+
+    /**
+     * @param anchorOrientations Number of the first orientations of the first face at the upper side,
+     *                           see {@link CubeSymmetry#getAnchorOrientations(boolean)}
+     */
+    private long[] getSolutions(List<Face> faces, int anchorOrientations) {
+
+        PuzzleFingerprint fingerprint = PuzzleFingerprint.of(faces);
+        long[] uniqueSolutions = getUniqueSolutions(fingerprint);
+
+        long[] solutions = new long[uniqueSolutions.length * 4];
+        int count = 0;
+        for (long uniqueSolution : uniqueSolutions) {
+            long solution = fingerprint.toOriginalSolution(uniqueSolution);
+            int firstFaceSide = 0;
+            while (CompatibilityTable.getFaceIndex(Solution.getPlacement(solution, firstFaceSide)) != 0) {
+                firstFaceSide++;
+            }
+            for (int rotation : UPPER_ROTATIONS[firstFaceSide]) {
+                long rotatedSolution = CubeSymmetry.apply(rotation, solution);
+                if (CompatibilityTable.getOrientation(Solution.getPlacement(rotatedSolution, CubeSide.UPPER))
+                        < anchorOrientations) {
+                    solutions[count++] = rotatedSolution;
+                }
+            }
+        }
+        return (count == solutions.length)? solutions : Arrays.copyOf(solutions, count);
+    }
+
+    /**
+     * @return Solutions for the canonical faces, that are not symmetric to each other
+     */
+    private long[] getUniqueSolutions(PuzzleFingerprint fingerprint) {
+
+        long[] solutions;
+        synchronized (entries) {
+            solutions = entries.get(fingerprint);
+            if (solutions != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+
+        if (solutions == null) {
+            // several threads may solve the same puzzle at once, which is harmless
+            solutions = (directory == null)? null : readFile(fingerprint);
+            if (solutions == null) {
+                solutions = solve(fingerprint.getCanonicalFaces());
+                if (directory != null) {
+                    writeFile(fingerprint, solutions);
+                }
+            }
+            synchronized (entries) {
+                entries.put(fingerprint, solutions);
+            }
+        }
+        return solutions;
+    }
+
+    private static long[] solve(List<Face> faces) {
+
+        SolutionBuffer solutions = new SolutionBuffer();
+        Solver.happyCube(faces).uniqueSolutions().solutionVisitor(solutions).solve();
+        return solutions.toArray();
+    }
+
+    private File getFile(PuzzleFingerprint fingerprint) {
+        return new File(directory, fingerprint.getDigest() + FILE_EXTENSION);
+    }
+
+    /**
+     * @return Solutions from the file, or null if there's no file for this puzzle
+     */
+    private long[] readFile(PuzzleFingerprint fingerprint) {
+
+        File file = getFile(fingerprint);
+        if (!file.exists()) {
+            return null;
+        }
+        try (SolutionFileReader reader = SolutionFileReader.open(file)) {
+
+            // guard against collisions of digests
+            List<Face> faces = reader.getFaces();
+            if (faces.size() != fingerprint.getCanonicalFaces().size()) {
+                return null;
+            }
+            for (int i = 0; i < faces.size(); i++) {
+                if (!fingerprint.isCanonicalFace(i, faces.get(i))) {
+                    return null;
+                }
+            }
+
+            long[] solutions = new long[(int) reader.getSolutionCount()];
+            for (int i = 0; i < solutions.length; i++) {
+                solutions[i] = reader.getPackedSolution(i);
+            }
+            return solutions;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * The file is written under a temporary name and then renamed,
+     * so that other caches never see a partially written file
+     */
+    private void writeFile(PuzzleFingerprint fingerprint, long[] solutions) {
+
+        File file = getFile(fingerprint);
+        File temporaryFile = null;
+        try {
+            temporaryFile = File.createTempFile(fingerprint.getDigest(), ".tmp", directory);
+            try (SolutionFileWriter writer = SolutionFileWriter.create(temporaryFile, fingerprint.getCanonicalFaces())) {
+                for (long solution : solutions) {
+                    writer.visit(solution);
+                }
+            }
+            try {
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } catch (IOException e) {
+            if (temporaryFile != null && !temporaryFile.delete()) {
+                temporaryFile.deleteOnExit();
+            }
+            throw new RuntimeException("Failed to write file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * @return Number of requests, that have been answered from memory
+     */
+    public long getHitCount() {
+        synchronized (entries) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * @return Number of requests, that have been answered from disk or by solving the puzzle
+     */
+    public long getMissCount() {
+        synchronized (entries) {
+            return missCount;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package example;
+
+/**
+ * Numbers of solutions, see {@link HappyCube#count()}.
+ */
+public final class SolutionCount {
+
+    private final long solutions;
+    private final long uniqueSolutions;
+    private final long uniqueSolutionsExcludingMirrorImages;
+    private final StopReason stopReason;
+
+    SolutionCount(long solutions, long uniqueSolutions, long uniqueSolutionsExcludingMirrorImages,
+                  StopReason stopReason) {
+        this.solutions = solutions;
+        this.uniqueSolutions = uniqueSolutions;
+        this.uniqueSolutionsExcludingMirrorImages = uniqueSolutionsExcludingMirrorImages;
+        this.stopReason = stopReason;
+    }
+
+    /**
+     * @return Number of all solutions (the first face is always put on the upper side)
+     */
+    public long getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * @return Number of solutions, that are not symmetric to each other
+     */
+    public long getUniqueSolutions() {
+        return uniqueSolutions;
+    }
+
+    /**
+     * @return Number of solutions, that are neither symmetric to each other nor to each other's mirror images
+     */
+    public long getUniqueSolutionsExcludingMirrorImages() {
+        return uniqueSolutionsExcludingMirrorImages;
+    }
+
+    /**
+     * @return The reason, why the search has stopped; if it's not {@link StopReason#COMPLETED},
+     *         then the numbers are incomplete
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public String toString() {
+        return "SolutionCount{solutions=" + solutions + ", unique=" + uniqueSolutions
+                + ", uniqueExcludingMirrorImages=" + uniqueSolutionsExcludingMirrorImages
+                + ", stopReason=" + stopReason + "}";
+    }
+}
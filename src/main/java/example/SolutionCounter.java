@@ -0,0 +1,44 @@
+package example;
+
+/**
+ * Counts solutions and derives the numbers of unique solutions.
+ *
+ * All engines fix the first face at the upper side, so the solutions are acted upon
+ * only by the symmetries, that keep the upper side in place: 4 rotations around the vertical axis
+ * (and 4 reflections in the vertical planes, when mirror images are considered symmetric).
+ * Each orbit of the full symmetry group of the cube contains exactly one orbit of this subgroup.
+ *
+ * Every symmetry of the subgroup, except for the identity, changes the orientation of the first face
+ * (see {@link CubeSymmetry#getAnchorOrientations(boolean)}), so no solution is symmetric to itself,
+ * and by Burnside's lemma each orbit contains exactly 4 (or 8) solutions.
+ * Hence the numbers of unique solutions are obtained by division, without applying any symmetries.
+ *
+ * Must not be called concurrently.
+ */
+class SolutionCounter implements SolutionVisitor {
+
+    private static final int ROTATIONS = CubeSymmetry.getStabilizer(CubeSide.UPPER, false).length;
+    private static final int SYMMETRIES = CubeSymmetry.getStabilizer(CubeSide.UPPER, true).length;
+
+    private long solutions;
+
+    @Override
+    public void visit(long solution) {
+        solutions++;
+    }
+
+    long getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * The number is exact, when all solutions have been visited;
+     * otherwise the orbits may be incomplete, and the number is rounded up.
+     *
+     * @param includeReflections Whether mirror images should be considered symmetric
+     */
+    long getUniqueSolutions(boolean includeReflections) {
+        int symmetries = includeReflections? SYMMETRIES : ROTATIONS;
+        return (solutions + symmetries - 1) / symmetries;
+    }
+}
@@ -0,0 +1,112 @@
+package example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of a binary solution file (all numbers are big-endian):
+ *
+ * - magic number (int) and version (int)
+ * - number of solutions (long); it's written, when the file is closed
+ * - edge size (int) and number of faces (int)
+ * - points of each face, one byte per point (0 for socket, 1 for plug), in the same order,
+ *   that was used to construct the face (see {@link Face#Face(byte[], int)})
+ * - padding up to the multiple of 8 bytes
+ * - fixed-width records, one packed solution (long) per record (see {@link Solution})
+ *
+ * Face indices in the packed solutions refer to the list of faces in the header.
+ */
+final class SolutionFileFormat {
+
+    static final int MAGIC = 0x43554245; // "CUBE"
+    static final int VERSION = 1;
+
+    static final int SOLUTION_COUNT_OFFSET = 8;
+    static final int EDGE_SIZE_OFFSET = 16;
+    static final int FACE_COUNT_OFFSET = 20;
+    static final int FACES_OFFSET = 24;
+
+    static final int RECORD_SIZE = Long.SIZE / Byte.SIZE;
+
+    private SolutionFileFormat() {
+    }
+
+    /**
+     * @return Offset of the first record
+     */
+    static long getHeaderSize(int edgeSize, int faceCount) {
+        long size = FACES_OFFSET + (long) faceCount * getPointCount(edgeSize);
+        return (size + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+    }
+
+    private static int getPointCount(int edgeSize) {
+        return edgeSize * 4 - 4;
+    }
+
+    /**
+     * Write the header with zero number of solutions
+     *
+     * @return Offset of the first record
+     */
+    static long writeHeader(FileChannel channel, List<Face> faces) throws IOException {
+
+        int edgeSize = faces.get(0).getEdges().get(0).getSize();
+        long headerSize = getHeaderSize(edgeSize, faces.size());
+        if (headerSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many faces: " + faces.size());
+        }
+
+        ByteBuffer header = ByteBuffer.allocate((int) headerSize);
+        header.putInt(MAGIC).putInt(VERSION).putLong(0).putInt(edgeSize).putInt(faces.size());
+        for (Face face : faces) {
+            // each edge starts with the last point of the previous edge
+            for (Edge edge : face.getEdges()) {
+                header.put(edge.getPoints(), 0, edgeSize - 1);
+            }
+        }
+        header.clear();
+        writeFully(channel, header, 0);
+        return headerSize;
+    }
+
+    static void writeSolutionCount(FileChannel channel, long solutionCount) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.SIZE / Byte.SIZE);
+        buffer.putLong(solutionCount).flip();
+        writeFully(channel, buffer, SOLUTION_COUNT_OFFSET);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * @param header Buffer, that contains the whole header, positioned at the start of the file
+     * @return Faces from the header
+     * @throws IllegalArgumentException if the buffer does not contain a valid header
+     */
+    static List<Face> readFaces(ByteBuffer header) {
+
+        if (header.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a solution file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version of solution file: " + version);
+        }
+        header.getLong(); // solution count
+
+        int edgeSize = header.getInt(), faceCount = header.getInt();
+        List<Face> faces = new ArrayList<>(faceCount + 1);
+        for (int i = 0; i < faceCount; i++) {
+            byte[] points = new byte[getPointCount(edgeSize)];
+            header.get(points);
+            faces.add(new Face(points, edgeSize));
+        }
+        return faces;
+    }
+}
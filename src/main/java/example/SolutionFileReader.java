@@ -0,0 +1,131 @@
+package example;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Random access to the solutions in a binary file, that has been written by {@link SolutionFileWriter}.
+ *
+ * The records are memory-mapped in segments of 1 GB, so files of any size can be read,
+ * and reading some solution does not require reading the preceding ones.
+ * Each solution can be rendered as ASCII drawing on demand, see {@link #writeSolution(long, ConfigurationWriter)}.
+ *
+ * The reader can be shared between threads.
+ */
+public class SolutionFileReader implements AutoCloseable {
+
+    private static final int SEGMENT_SIZE = 1 << 30;
+    private static final int RECORDS_PER_SEGMENT = SEGMENT_SIZE / SolutionFileFormat.RECORD_SIZE;
+
+    private final RandomAccessFile file;
+    private final List<Face> faces;
+    private final long solutionCount;
+    private final MappedByteBuffer[] segments;
+
+    private SolutionFileReader(RandomAccessFile file) throws IOException {
+
+        this.file = file;
+        FileChannel channel = file.getChannel();
+
+        ByteBuffer prefix = ByteBuffer.allocate(SolutionFileFormat.FACES_OFFSET);
+        if (channel.read(prefix, 0) < prefix.capacity() || prefix.getInt(0) != SolutionFileFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a solution file");
+        }
+        int edgeSize = prefix.getInt(SolutionFileFormat.EDGE_SIZE_OFFSET),
+            faceCount = prefix.getInt(SolutionFileFormat.FACE_COUNT_OFFSET);
+        if (edgeSize < 2 || faceCount < 1 || faceCount > Solution.MAX_FACES) {
+            throw new IllegalArgumentException("Invalid header of solution file");
+        }
+        long headerSize = SolutionFileFormat.getHeaderSize(edgeSize, faceCount);
+        if (headerSize > channel.size()) {
+            throw new IllegalArgumentException("Invalid header of solution file");
+        }
+
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerSize);
+        this.faces = Collections.unmodifiableList(SolutionFileFormat.readFaces(header));
+        this.solutionCount = header.getLong(SolutionFileFormat.SOLUTION_COUNT_OFFSET);
+        if (solutionCount < 0) {
+            throw new IllegalArgumentException("Invalid header of solution file");
+        }
+        if (solutionCount > (channel.size() - headerSize) / SolutionFileFormat.RECORD_SIZE) {
+            throw new IllegalArgumentException("Solution file is truncated");
+        }
+
+        int segmentCount = (int) ((solutionCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            long records = Math.min(RECORDS_PER_SEGMENT, solutionCount - (long) segment * RECORDS_PER_SEGMENT);
+            segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    headerSize + (long) segment * SEGMENT_SIZE, records * SolutionFileFormat.RECORD_SIZE);
+        }
+    }
+
+    public static SolutionFileReader open(File file) {
+
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            return new SolutionFileReader(randomAccessFile);
+
+        } catch (IOException | RuntimeException e) {
+            if (randomAccessFile != null) {
+                try {
+                    randomAccessFile.close();
+                } catch (IOException e1) {
+                    e.addSuppressed(e1);
+                }
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new RuntimeException("Failed to open file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * @return Faces of the puzzle, that the solutions have been found for
+     */
+    public List<Face> getFaces() {
+        return faces;
+    }
+
+    public long getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * @return Packed solution with the given index (see {@link Solution})
+     * @throws IndexOutOfBoundsException if there's no such solution
+     */
+    public long getPackedSolution(long index) {
+
+        if (index < 0 || index >= solutionCount) {
+            throw new IndexOutOfBoundsException("Invalid index: " + index + ", number of solutions: " + solutionCount);
+        }
+        // absolute reads do not change the buffer's position, so it's safe to read concurrently
+        return segments[(int) (index / RECORDS_PER_SEGMENT)]
+                .getLong((int) (index % RECORDS_PER_SEGMENT) * SolutionFileFormat.RECORD_SIZE);
+    }
+
+    public Solution getSolution(long index) {
+        return new Solution(faces, getPackedSolution(index));
+    }
+
+    /**
+     * Render the solution with the given index
+     */
+    public void writeSolution(long index, ConfigurationWriter writer) {
+        writer.writeSolution(getPackedSolution(index), faces);
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,127 @@
+package example;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Writes packed solutions to a binary file (see {@link SolutionFileFormat}),
+ * that can be read by {@link SolutionFileReader}.
+ *
+ * Each solution takes 8 bytes, and records are written through a memory-mapped region of the file,
+ * which is re-mapped further, when it's full. The number of solutions is written to the header,
+ * and the file is truncated to the last record, when the writer is closed.
+ *
+ * The writer is a {@link SolutionVisitor}, so it can be passed directly to the solver.
+ * It must not be used concurrently.
+ */
+public class SolutionFileWriter implements SolutionVisitor, AutoCloseable {
+
+    /**
+     * Default size of the memory-mapped region
+     */
+    public static final int DEFAULT_MAPPING_SIZE = 1 << 24;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long headerSize;
+    private final int mappingSize;
+
+    private MappedByteBuffer buffer;
+    private long mappingPosition;
+    private long solutionCount;
+
+    private SolutionFileWriter(RandomAccessFile file, List<Face> faces, int mappingSize) throws IOException {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.headerSize = SolutionFileFormat.writeHeader(channel, faces);
+        this.mappingSize = mappingSize / SolutionFileFormat.RECORD_SIZE * SolutionFileFormat.RECORD_SIZE;
+        this.mappingPosition = headerSize;
+    }
+
+    public static SolutionFileWriter create(File file, List<Face> faces) {
+        return create(file, faces, DEFAULT_MAPPING_SIZE);
+    }
+
+    /**
+     * @param faces Faces of the puzzle, that the solutions will be found for
+     * @param mappingSize Size of the memory-mapped region in bytes; the region can hold (mappingSize / 8) solutions
+     */
+    public static SolutionFileWriter create(File file, List<Face> faces, int mappingSize) {
+
+        if (file.isDirectory()) {
+            throw new IllegalArgumentException("Can't write solutions: file is directory: " + file.getAbsolutePath());
+        }
+        if (faces.isEmpty()) {
+            throw new IllegalArgumentException("Can't write solutions: no faces");
+        }
+        if (faces.size() > Solution.MAX_FACES) {
+            throw new IllegalArgumentException("Too many faces: " + faces.size() + ", maximum is " + Solution.MAX_FACES);
+        }
+        if (mappingSize < SolutionFileFormat.RECORD_SIZE) {
+            throw new IllegalArgumentException("Mapping size is too small: " + mappingSize);
+        }
+
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            randomAccessFile.setLength(0);
+            return new SolutionFileWriter(randomAccessFile, faces, mappingSize);
+
+        } catch (IOException e) {
+            if (randomAccessFile != null) {
+                try {
+                    randomAccessFile.close();
+                } catch (IOException e1) {
+                    e.addSuppressed(e1);
+                }
+            }
+            throw new RuntimeException("Failed to create file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void visit(long solution) {
+
+        if (buffer == null || !buffer.hasRemaining()) {
+            map();
+        }
+        buffer.putLong(solution);
+        solutionCount++;
+    }
+
+    private void map() {
+
+        if (buffer != null) {
+            mappingPosition += mappingSize;
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, mappingPosition, mappingSize);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to map solution file at position " + mappingPosition, e);
+        }
+    }
+
+    /**
+     * @return Number of solutions, that have been written so far
+     */
+    public long getSolutionCount() {
+        return solutionCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            SolutionFileFormat.writeSolutionCount(channel, solutionCount);
+            channel.truncate(headerSize + solutionCount * SolutionFileFormat.RECORD_SIZE);
+        } finally {
+            file.close();
+        }
+    }
+}
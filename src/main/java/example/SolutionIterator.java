@@ -0,0 +1,98 @@
+package example;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily produces solutions, found by {@link BacktrackingSolver}.
+ * The search is suspended between the calls to {@link #next()},
+ * and it's advanced only as far as necessary to answer {@link #hasNext()}.
+ * Each solution of the solver is expanded to the solutions, that differ only by identical and symmetric faces
+ * (see {@link FaceSymmetry}), and they are produced before the search is resumed.
+ *
+ * Not thread-safe.
+ */
+class SolutionIterator implements Iterator<Solution> {
+
+    private final BacktrackingSolver solver;
+    private final List<Face> faces;
+    private final SearchControl control;
+    private final FaceSymmetry symmetry;
+
+    /**
+     * Expanded solutions, that have not been produced yet
+     */
+    private long[] buffer;
+    private int bufferSize;
+    private int bufferPosition;
+
+    private boolean advanced;
+    private boolean hasNext;
+    private boolean closed;
+
+    /**
+     * @param control Same control, that is used by the solver
+     */
+    SolutionIterator(BacktrackingSolver solver, List<Face> faces, SearchControl control) {
+        this.solver = solver;
+        this.faces = faces;
+        this.control = control;
+        this.symmetry = solver.getCompatibilityTable().getFaceSymmetry();
+        this.buffer = new long[16];
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        if (closed) {
+            return false;
+        }
+        if (!advanced) {
+            hasNext = (bufferPosition < bufferSize || fillBuffer()) && control.onSolution();
+            advanced = true;
+        }
+        return hasNext;
+    }
+
+    private boolean fillBuffer() {
+
+        bufferSize = bufferPosition = 0;
+        if (!solver.next()) {
+            return false;
+        }
+        symmetry.expand(solver.getSolution(), solver.getAnchorOrientations(), control, new SolutionVisitor() {
+            @Override
+            public void visit(long solution) {
+                if (bufferSize == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, bufferSize * 2);
+                }
+                buffer[bufferSize++] = solution;
+            }
+        });
+        return bufferSize > 0;
+    }
+
+    @Override
+    public Solution next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        advanced = false;
+        return new Solution(faces, buffer[bufferPosition++]);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stop the search; no more solutions will be produced
+     */
+    void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,10 @@
+package example;
+
+/**
+ * Receives solutions in the packed form, see {@link Solution}.
+ * Unlike {@link CubeVisitor}, neither the solver nor the visitor need to allocate anything per solution.
+ */
+public interface SolutionVisitor {
+
+    void visit(long solution);
+}
@@ -1,9 +1,31 @@
 package example;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Solver {
 
+    /**
+     * {@link SearchEvent#start()}, or null if jdk.jfr is not available
+     */
+    private static final Method START_EVENT = findStartEvent();
+
     private Solver() {
     }
 
@@ -11,11 +33,114 @@ public class Solver {
         return new HappyCubeBuilder(faces);
     }
 
+    /**
+     * Find all cubes, that can be assembled from any 6 pieces of the given pool.
+     */
+    public static HappyCubePool pool(List<Face> pieces) {
+        return new HappyCubePoolBuilder(pieces);
+    }
+
+    /**
+     * Solve many puzzles concurrently. Puzzles are taken from the iterable lazily,
+     * so that no more than a limited number of puzzles is in flight at any time.
+     */
+    public static HappyCubeBatch batch(Iterable<? extends List<Face>> puzzles) {
+        return new HappyCubeBatchBuilder(puzzles);
+    }
+
+    private static Method findStartEvent() {
+        try {
+            // jdk.jfr is missing on some Java 8 runtimes, so the event class is loaded only if it's present
+            Class.forName("jdk.jfr.Event");
+            return Class.forName("example.SearchEvent").getDeclaredMethod("start");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Started recorder, or null if jdk.jfr is not available or the event is not enabled in any recording
+     */
+    private static SearchRecorder startRecorder() {
+        if (START_EVENT == null) {
+            return null;
+        }
+        try {
+            return (SearchRecorder) START_EVENT.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to start search event", e);
+        }
+    }
+
+    /**
+     * @param anchorOrientations Number of the first orientations of the first face, that should be tried
+     * @param counters Counters of the search, may be null
+     * @param progress Tracker of the search, may be null
+     */
+    private static SearchEngine createSearchEngine(SolverEngine engine, CompatibilityTable table, int anchorOrientations,
+                                                   SearchControl control, SearchCounters counters,
+                                                   ProgressTracker progress) {
+        switch (engine) {
+            case BACKTRACKING: {
+                return new BacktrackingSolver(table, anchorOrientations, control, counters, progress);
+            }
+            case DANCING_LINKS: {
+                return new DancingLinksSolver(table, anchorOrientations, control, counters, progress);
+            }
+            case PROPAGATION: {
+                return new PropagationSolver(table, anchorOrientations, control, counters, progress);
+            }
+            default: {
+                throw new IllegalArgumentException("Not a search engine: " + engine);
+            }
+        }
+    }
+
+    /**
+     * Send the last progress report and the metrics of a search, that has stopped
+     *
+     * @param progress Tracker of the search, may be null
+     * @param counters Counters of the search, may be null
+     * @param start Start time of the search, in nanoseconds
+     * @param recorder Started recorder, may be null
+     * @param metricsListener Listener of the metrics, may be null
+     * @return The reason, why the search has stopped
+     */
+    private static StopReason finishSearch(SearchControl control, ProgressTracker progress, SearchCounters counters,
+                                           SolverEngine engine, long start, SearchRecorder recorder,
+                                           MetricsListener metricsListener) {
+
+        StopReason stopReason = control.getStopReason();
+        if (progress != null) {
+            progress.finish();
+        }
+        if (counters != null) {
+            SearchMetrics metrics = counters.toMetrics(engine, System.nanoTime() - start, stopReason);
+            if (recorder != null) {
+                recorder.commit(metrics);
+            }
+            if (metricsListener != null) {
+                metricsListener.onMetrics(metrics);
+            }
+        }
+        return stopReason;
+    }
+
     private static class HappyCubeBuilder implements HappyCube {
 
         private List<Face> faces;
         private CubeVisitor visitor;
+        private SolutionVisitor solutionVisitor;
         private boolean shouldFindUniqueSolutions;
+        private boolean shouldExcludeMirrorImages;
+        private SolverEngine engine = SolverEngine.PERMUTATIONS;
+        private int parallelism = 1;
+        private long limit = Long.MAX_VALUE;
+        private Duration timeout;
+        private CancellationToken cancellationToken;
+        private MetricsListener metricsListener;
+        private ProgressListener progressListener;
+        private Duration progressInterval;
 
         HappyCubeBuilder(List<Face> faces) {
             this.faces = faces;
@@ -27,15 +152,570 @@ public class Solver {
             return this;
         }
 
+        /**
+         * Receive solutions in the packed form (see {@link Solution}).
+         * Can be used together with {@link #cubeVisitor(CubeVisitor)}, both visitors will receive all solutions.
+         */
+        @Override
+        public HappyCube solutionVisitor(SolutionVisitor visitor) {
+            this.solutionVisitor = visitor;
+            return this;
+        }
+
         @Override
         public HappyCube uniqueSolutions() {
             shouldFindUniqueSolutions = true;
             return this;
         }
 
+        /**
+         * Consider mirror images of solutions to be symmetric as well.
+         * Implies {@link #uniqueSolutions()}.
+         */
+        @Override
+        public HappyCube excludeMirrorImages() {
+            shouldFindUniqueSolutions = true;
+            shouldExcludeMirrorImages = true;
+            return this;
+        }
+
+        @Override
+        public HappyCube engine(SolverEngine engine) {
+            if (engine == null) {
+                throw new NullPointerException("Engine is null");
+            }
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Split the search into subtasks, that are executed by the given number of threads.
+         * The visitor is still called by one thread at a time.
+         * Currently only {@link SolverEngine#PERMUTATIONS} can be parallelized;
+         * other engines are fast enough to be run by a single thread.
+         */
+        @Override
+        public HappyCube parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Stop the search, when the given number of solutions has been found
+         */
+        @Override
+        public HappyCube limit(long limit) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Invalid limit: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Stop the search, when the first solution has been found
+         */
+        @Override
+        public HappyCube firstSolution() {
+            return limit(1);
+        }
+
+        /**
+         * Stop the search, if it's not finished in the given time (counted from the start of the search)
+         */
         @Override
-        public void solve() {
-            new HappyCubeSolver(new FilteringHappyCubeVisitor(visitor, shouldFindUniqueSolutions)).solve(faces);
+        public HappyCube timeout(Duration timeout) {
+            if (timeout == null) {
+                throw new NullPointerException("Timeout is null");
+            }
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Invalid timeout: " + timeout);
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Stop the search, when the token is cancelled
+         */
+        @Override
+        public HappyCube cancellationToken(CancellationToken cancellationToken) {
+            if (cancellationToken == null) {
+                throw new NullPointerException("Cancellation token is null");
+            }
+            this.cancellationToken = cancellationToken;
+            return this;
+        }
+
+        /**
+         * Collect counters and timings of the search (see {@link SearchMetrics}) and pass them to the listener,
+         * when the search has stopped. The same metrics are recorded as JDK Flight Recorder events
+         * (see {@link SearchEvent}), when the event is enabled; otherwise, if there's no listener,
+         * nothing is collected.
+         */
+        @Override
+        public HappyCube metricsListener(MetricsListener listener) {
+            this.metricsListener = listener;
+            return this;
+        }
+
+        /**
+         * Report the fraction of the search space, that has been completed, at most once per interval,
+         * and once more, when the search has stopped (see {@link SearchProgress}).
+         * Reports are sent by the threads of the search, at the boundaries of the upper levels of the search tree,
+         * so they may be delayed, while a single subtree is searched.
+         */
+        @Override
+        public HappyCube progressListener(ProgressListener listener, Duration interval) {
+            if (listener == null) {
+                throw new NullPointerException("Progress listener is null");
+            }
+            if (interval == null) {
+                throw new NullPointerException("Interval is null");
+            }
+            if (interval.isNegative()) {
+                throw new IllegalArgumentException("Invalid interval: " + interval);
+            }
+            this.progressListener = listener;
+            this.progressInterval = interval;
+            return this;
+        }
+
+        /**
+         * @return The reason, why the search has stopped
+         */
+        @Override
+        public StopReason solve() {
+            return solve(visitor, solutionVisitor, getAnchorOrientations());
+        }
+
+        /**
+         * Count the solutions without storing them; visitors are not called.
+         * All solutions are enumerated, and the numbers of unique solutions are derived
+         * from the number of all solutions, see {@link SolutionCounter}.
+         * When the search is stopped early (see {@link SolutionCount#getStopReason()}),
+         * only the solutions found so far are counted, and the numbers of unique solutions are rounded up.
+         */
+        @Override
+        public SolutionCount count() {
+
+            SolutionCounter counter = new SolutionCounter();
+            StopReason stopReason = solve(null, counter, Orientation.COUNT);
+            return new SolutionCount(counter.getSolutions(), counter.getUniqueSolutions(false),
+                    counter.getUniqueSolutions(true), stopReason);
+        }
+
+        private StopReason solve(CubeVisitor visitor, SolutionVisitor solutionVisitor, int anchorOrientations) {
+
+            SearchRecorder recorder = startRecorder();
+            SearchCounters counters = (metricsListener != null || recorder != null)? new SearchCounters() : null;
+            long start = (counters != null)? System.nanoTime() : 0;
+
+            SearchControl control = new SearchControl(limit, timeout, cancellationToken);
+            ProgressTracker progress = (progressListener == null)? null :
+                    new ProgressTracker(progressListener, progressInterval.toNanos(), control);
+            CompatibilityTable table = CompatibilityTable.build(faces);
+
+            final FilteringHappyCubeVisitor filteringVisitor = new FilteringHappyCubeVisitor(
+                    visitor, solutionVisitor, anchorOrientations, control, table, counters);
+
+            switch (engine) {
+                case PERMUTATIONS: {
+                    if (parallelism > 1) {
+                        new ParallelHappyCubeSolver(new CubeVisitor() {
+                            @Override
+                            public void visit(Cube cube) {
+                                filteringVisitor.visitSolution(cube);
+                            }
+                        }, parallelism, anchorOrientations, control, counters, progress).solve(table);
+                    } else {
+                        new HappyCubeSolver(filteringVisitor, control, progress).solve(table);
+                    }
+                    break;
+                }
+                case BACKTRACKING:
+                case DANCING_LINKS:
+                case PROPAGATION: {
+                    SearchEngine searchEngine =
+                            createSearchEngine(engine, table, anchorOrientations, control, counters, progress);
+                    if (visitor == null) {
+                        // the cube is not needed at all
+                        searchEngine.solveSolutions(new SolutionVisitor() {
+                            @Override
+                            public void visit(long solution) {
+                                filteringVisitor.visitSolution(solution);
+                            }
+                        });
+                    } else {
+                        searchEngine.solveCubes(new CubeVisitor() {
+                            @Override
+                            public void visit(Cube cube) {
+                                filteringVisitor.visitSolution(cube);
+                            }
+                        });
+                    }
+                    break;
+                }
+                default: {
+                    throw new IllegalStateException("Unknown engine: " + engine);
+                }
+            }
+
+            return finishSearch(control, progress, counters, engine, start, recorder, metricsListener);
+        }
+
+        /**
+         * Solutions are produced lazily, one at a time, by the {@link SolverEngine#BACKTRACKING} engine,
+         * regardless of the chosen engine, because the search must be suspended between the results.
+         * Visitors are not called. Limits of the search are respected, the timeout is counted
+         * from the moment, when the iterator is created.
+         */
+        @Override
+        public Iterator<Solution> iterator() {
+            return createIterator();
+        }
+
+        /**
+         * Same as {@link #iterator()}. The search stops, as soon as the stream is short-circuited
+         * (e.g. by {@link Stream#findFirst()} or {@link Stream#limit(long)}) or closed.
+         */
+        @Override
+        public Stream<Solution> stream() {
+
+            final SolutionIterator iterator = createIterator();
+            Spliterator<Solution> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                    Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+
+            return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+                @Override
+                public void run() {
+                    iterator.close();
+                }
+            });
+        }
+
+        private SolutionIterator createIterator() {
+            CompatibilityTable table = CompatibilityTable.build(faces);
+            SearchControl control = new SearchControl(limit, timeout, cancellationToken);
+            return new SolutionIterator(new BacktrackingSolver(table, getAnchorOrientations(), control),
+                    table.getFaces(), control);
+        }
+
+        /**
+         * Symmetric solutions are not visited at all, see {@link CubeSymmetry#getAnchorOrientations(boolean)}
+         */
+        private int getAnchorOrientations() {
+            return shouldFindUniqueSolutions?
+                    CubeSymmetry.getAnchorOrientations(shouldExcludeMirrorImages) : Orientation.COUNT;
+        }
+    }
+
+    private static class HappyCubePoolBuilder implements HappyCubePool {
+
+        private final List<Face> pieces;
+        private boolean shouldFindUniqueSolutions;
+        private boolean shouldExcludeMirrorImages;
+        private long limit = Long.MAX_VALUE;
+        private Duration timeout;
+        private CancellationToken cancellationToken;
+        private MetricsListener metricsListener;
+        private ProgressListener progressListener;
+        private Duration progressInterval;
+
+        HappyCubePoolBuilder(List<Face> pieces) {
+            this.pieces = pieces;
+        }
+
+        @Override
+        public HappyCubePool uniqueSolutions() {
+            shouldFindUniqueSolutions = true;
+            return this;
+        }
+
+        /**
+         * Consider mirror images of solutions to be symmetric as well.
+         * Implies {@link #uniqueSolutions()}.
+         */
+        @Override
+        public HappyCubePool excludeMirrorImages() {
+            shouldFindUniqueSolutions = true;
+            shouldExcludeMirrorImages = true;
+            return this;
+        }
+
+        /**
+         * Stop the search, when the given number of solutions (in all subsets) has been found
+         */
+        @Override
+        public HappyCubePool limit(long limit) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Invalid limit: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Stop the search, if it's not finished in the given time (counted from the start of the search)
+         */
+        @Override
+        public HappyCubePool timeout(Duration timeout) {
+            if (timeout == null) {
+                throw new NullPointerException("Timeout is null");
+            }
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Invalid timeout: " + timeout);
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Stop the search, when the token is cancelled
+         */
+        @Override
+        public HappyCubePool cancellationToken(CancellationToken cancellationToken) {
+            if (cancellationToken == null) {
+                throw new NullPointerException("Cancellation token is null");
+            }
+            this.cancellationToken = cancellationToken;
+            return this;
+        }
+
+        /**
+         * Same as {@link HappyCube#metricsListener(MetricsListener)};
+         * the engine of the metrics is null, and no duplicates are rejected
+         */
+        @Override
+        public HappyCubePool metricsListener(MetricsListener listener) {
+            this.metricsListener = listener;
+            return this;
+        }
+
+        /**
+         * Same as {@link HappyCube#progressListener(ProgressListener, Duration)}
+         */
+        @Override
+        public HappyCubePool progressListener(ProgressListener listener, Duration interval) {
+            if (listener == null) {
+                throw new NullPointerException("Progress listener is null");
+            }
+            if (interval == null) {
+                throw new NullPointerException("Interval is null");
+            }
+            if (interval.isNegative()) {
+                throw new IllegalArgumentException("Invalid interval: " + interval);
+            }
+            this.progressListener = listener;
+            this.progressInterval = interval;
+            return this;
+        }
+
+        /**
+         * @return The reason, why the search has stopped
+         */
+        @Override
+        public StopReason solve(PoolVisitor visitor) {
+
+            SearchRecorder recorder = startRecorder();
+            SearchCounters counters = (metricsListener != null || recorder != null)? new SearchCounters() : null;
+            long start = (counters != null)? System.nanoTime() : 0;
+
+            SearchControl control = new SearchControl(limit, timeout, cancellationToken);
+            ProgressTracker progress = (progressListener == null)? null :
+                    new ProgressTracker(progressListener, progressInterval.toNanos(), control);
+
+            int anchorOrientations = shouldFindUniqueSolutions?
+                    CubeSymmetry.getAnchorOrientations(shouldExcludeMirrorImages) : Orientation.COUNT;
+            new PoolSolver(pieces, anchorOrientations, visitor, control, counters, progress).solve();
+
+            return finishSearch(control, progress, counters, null, start, recorder, metricsListener);
+        }
+    }
+
+    private static class HappyCubeBatchBuilder implements HappyCubeBatch {
+
+        private final Iterable<? extends List<Face>> puzzles;
+        private Executor executor;
+        private int maxInFlight = Runtime.getRuntime().availableProcessors();
+        private boolean shouldFindUniqueSolutions;
+        private SolverEngine engine = SolverEngine.PERMUTATIONS;
+
+        HappyCubeBatchBuilder(Iterable<? extends List<Face>> puzzles) {
+            this.puzzles = puzzles;
+        }
+
+        /**
+         * By default, each puzzle is solved in a separate virtual thread (when running on Java 21+)
+         * or by a fixed thread pool with one thread per processor. Executors, that are provided
+         * by the caller, are not shut down after the batch has been processed.
+         */
+        @Override
+        public HappyCubeBatch executor(Executor executor) {
+            if (executor == null) {
+                throw new NullPointerException("Executor is null");
+            }
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Limit the number of puzzles, that are being solved or have been submitted to the executor
+         * at any given moment (defaults to the number of processors).
+         * With {@link #solve(BatchCallback)}, a puzzle stays in flight until its result has been passed to the callback,
+         * so that no more than this number of results is kept in memory.
+         */
+        @Override
+        public HappyCubeBatch maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("Invalid number of puzzles in flight: " + maxInFlight);
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        @Override
+        public HappyCubeBatch uniqueSolutions() {
+            shouldFindUniqueSolutions = true;
+            return this;
+        }
+
+        @Override
+        public HappyCubeBatch engine(SolverEngine engine) {
+            if (engine == null) {
+                throw new NullPointerException("Engine is null");
+            }
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Solve all puzzles and pass the results to the callback.
+         * Blocks until all puzzles have been solved and all results have been passed to the callback.
+         */
+        @Override
+        public void solve(final BatchCallback callback) {
+
+            final Object lock = new Object();
+            execute(new ResultHandler() {
+                @Override
+                public void done(int index, List<Face> faces, Future<PuzzleResult> result) {
+                    synchronized (lock) {
+                        try {
+                            callback.onResult(result.get());
+                        } catch (ExecutionException e) {
+                            callback.onFailure(index, faces, e.getCause());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            callback.onFailure(index, faces, e);
+                        }
+                    }
+                }
+            }, null, true);
+        }
+
+        /**
+         * Submit all puzzles for solving.
+         * Blocks until the last puzzle has been submitted, which may take a while,
+         * because no more than a limited number of puzzles is in flight at any time.
+         *
+         * The limit only applies to the puzzles, that are being solved: the results of all puzzles are kept
+         * in the returned futures, so the memory grows with the size of the batch.
+         * Use {@link #solve(BatchCallback)} to process the results of a large batch as they arrive.
+         *
+         * @return Futures in the same order, as the puzzles have been provided
+         */
+        @Override
+        public List<Future<PuzzleResult>> submit() {
+
+            List<Future<PuzzleResult>> futures = new ArrayList<>();
+            execute(null, futures, false);
+            return futures;
+        }
+
+        private void execute(final ResultHandler handler, List<Future<PuzzleResult>> futures, boolean shouldAwait) {
+
+            ExecutorService defaultExecutor = (executor == null)? createDefaultExecutor() : null;
+            Executor executor = (defaultExecutor == null)? this.executor : defaultExecutor;
+
+            final Semaphore inFlight = new Semaphore(maxInFlight);
+            try {
+                int index = 0;
+                for (final List<Face> faces : puzzles) {
+                    inFlight.acquire();
+
+                    final int puzzleIndex = index++;
+                    FutureTask<PuzzleResult> task = new FutureTask<PuzzleResult>(createTask(puzzleIndex, faces)) {
+                        @Override
+                        protected void done() {
+                            try {
+                                if (handler != null) {
+                                    handler.done(puzzleIndex, faces, this);
+                                }
+                            } finally {
+                                inFlight.release();
+                            }
+                        }
+                    };
+                    if (futures != null) {
+                        futures.add(task);
+                    }
+
+                    try {
+                        executor.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                }
+
+                if (shouldAwait) {
+                    inFlight.acquire(maxInFlight);
+                    inFlight.release(maxInFlight);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while solving a batch of puzzles", e);
+            } finally {
+                if (defaultExecutor != null) {
+                    defaultExecutor.shutdown();
+                }
+            }
+        }
+
+        private Callable<PuzzleResult> createTask(final int index, final List<Face> faces) {
+            return new Callable<PuzzleResult>() {
+                @Override
+                public PuzzleResult call() {
+
+                    // packed solutions don't need the cube to be updated for each solution
+                    SolutionBuffer solutions = new SolutionBuffer();
+                    HappyCube happyCube = Solver.happyCube(faces).engine(engine).solutionVisitor(solutions);
+                    if (shouldFindUniqueSolutions) {
+                        happyCube.uniqueSolutions();
+                    }
+                    happyCube.solve();
+
+                    return new PuzzleResult(index, faces, solutions.toArray());
+                }
+            };
+        }
+
+        private ExecutorService createDefaultExecutor() {
+            try {
+                // available since Java 21
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            }
+        }
+
+        private interface ResultHandler {
+            void done(int index, List<Face> faces, Future<PuzzleResult> result);
         }
     }
 }
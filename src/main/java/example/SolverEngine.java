@@ -0,0 +1,31 @@
+package example;
+
+/**
+ * Search strategies, that can be used for solving a puzzle.
+ * All strategies find the same set of solutions.
+ */
+public enum SolverEngine {
+
+    /**
+     * Try all permutations of faces and check all 8^6 rotations of each complete cube.
+     */
+    PERMUTATIONS,
+
+    /**
+     * Choose the face and its orientation for one side at a time
+     * and drop the branch as soon as some edge can't be connected.
+     */
+    BACKTRACKING,
+
+    /**
+     * Solve the exact cover problem (each side is covered once, each face is used once) with dancing links,
+     * checking the edges of each placement against the occupied adjacent sides.
+     */
+    DANCING_LINKS,
+
+    /**
+     * Keep the feasible placements of each unoccupied side, narrow them after each placement
+     * and always fill the side with the fewest candidates next.
+     */
+    PROPAGATION
+}
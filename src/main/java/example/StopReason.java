@@ -0,0 +1,27 @@
+package example;
+
+/**
+ * The reason, why the search has stopped.
+ */
+public enum StopReason {
+
+    /**
+     * All solutions have been found.
+     */
+    COMPLETED,
+
+    /**
+     * The requested number of solutions has been found, see {@link HappyCube#limit(long)}.
+     */
+    LIMIT_REACHED,
+
+    /**
+     * The search has not finished in time, see {@link HappyCube#timeout(java.time.Duration)}.
+     */
+    TIMED_OUT,
+
+    /**
+     * The search has been cancelled, see {@link CancellationToken#cancel()}.
+     */
+    CANCELLED
+}
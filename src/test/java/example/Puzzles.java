@@ -0,0 +1,19 @@
+package example;
+
+import java.util.List;
+
+/**
+ * Puzzles, that are shared by the tests
+ */
+public class Puzzles {
+
+    private Puzzles() {
+    }
+
+    /**
+     * @return New list with the faces of the golden puzzle (see {@link Main#goldenFaces()}): 64 solutions, 16 unique
+     */
+    public static List<Face> goldenFaces() {
+        return Main.goldenFaces();
+    }
+}
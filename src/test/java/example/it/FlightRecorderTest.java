@@ -0,0 +1,57 @@
+package example.it;
+
+import example.Puzzles;
+import example.Solver;
+import example.SolverEngine;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class FlightRecorderTest {
+
+    @Before
+    public void checkFlightRecorder() {
+        boolean available;
+        try {
+            Class.forName("jdk.jfr.Recording");
+            available = true;
+        } catch (ClassNotFoundException e) {
+            available = false;
+        }
+        assumeTrue(available);
+    }
+
+    @Test
+    public void solveHappyCube_SearchEvent() throws Exception {
+
+        Path file = Files.createTempFile("search", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("example.Search");
+                recording.start();
+                Solver.happyCube(Puzzles.goldenFaces()).engine(SolverEngine.BACKTRACKING).uniqueSolutions().solve();
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(1, events.size());
+            assertEquals("BACKTRACKING", events.get(0).getString("engine"));
+            assertEquals("COMPLETED", events.get(0).getString("stopReason"));
+            assertEquals(16, events.get(0).getLong("solutions"));
+            assertTrue(events.get(0).getLong("nodes") > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -1,14 +1,51 @@
 package example.it;
 
+import example.BatchCallback;
+import example.CancellationToken;
+import example.Configuration;
+import example.Cube;
+import example.Edge;
+import example.CubeSide;
+import example.CubeVisitor;
 import example.Face;
+import example.HappyCube;
+import example.HappyCubePool;
+import example.MetricsListener;
+import example.PoolVisitor;
+import example.ProgressListener;
+import example.PuzzleResult;
+import example.Puzzles;
+import example.SearchMetrics;
+import example.SearchProgress;
+import example.Side;
+import example.Solution;
+import example.SolutionCount;
+import example.SolutionVisitor;
 import example.Solver;
+import example.SolverEngine;
+import example.StopReason;
 import example.it.visitor.CountingCubeVisitor;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class SolverTest {
 
@@ -45,4 +82,702 @@ public class SolverTest {
 
         assertEquals(16, visitor1.getResultCount());
     }
+
+    @Test
+    public void solveHappyCube_Engines_SameSolutions() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+        List<Face> identicalFaces = identicalFacesPuzzle();
+
+        Set<Configuration> expected = collectSolutions(faces, SolverEngine.PERMUTATIONS);
+        Set<Long> expectedUnique = collectPackedSolutions(Solver.happyCube(faces).uniqueSolutions());
+        Set<Long> expectedIdentical = collectPackedSolutions(Solver.happyCube(identicalFaces));
+
+        assertEquals(64, expected.size());
+        assertEquals(16, expectedUnique.size());
+        assertEquals(9216, expectedIdentical.size());
+
+        for (SolverEngine engine : SolverEngine.values()) {
+            assertEquals(engine.name(), expected, collectSolutions(faces, engine));
+            assertEquals(engine.name(), expectedUnique,
+                    collectPackedSolutions(Solver.happyCube(faces).engine(engine).uniqueSolutions()));
+            assertEquals(engine.name(), expectedIdentical,
+                    collectPackedSolutions(Solver.happyCube(identicalFaces).engine(engine)));
+        }
+    }
+
+    @Test
+    public void solveHappyCube_Backtracking_NumberOfUniqueSolutions() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        CountingCubeVisitor visitor = new CountingCubeVisitor();
+        Solver.happyCube(faces).cubeVisitor(visitor).engine(SolverEngine.BACKTRACKING).uniqueSolutions().solve();
+
+        assertEquals(16, visitor.getResultCount());
+    }
+
+    @Test
+    public void solveHappyCube_Propagation_UnsolvableFacesFailEarly() {
+
+        // unsolvable set fails much earlier, than with backtracking
+        List<Face> unsolvableFaces = Puzzles.goldenFaces();
+        unsolvableFaces.set(5, new Face(new byte[] {1,1,1,0,1,1,1,0,1,1,1,0,1,1,1,0}, 5));
+
+        final List<SearchMetrics> metrics = new ArrayList<>();
+        MetricsListener listener = new MetricsListener() {
+            @Override
+            public void onMetrics(SearchMetrics searchMetrics) {
+                metrics.add(searchMetrics);
+            }
+        };
+        Solver.happyCube(unsolvableFaces).engine(SolverEngine.BACKTRACKING).metricsListener(listener).solve();
+        Solver.happyCube(unsolvableFaces).engine(SolverEngine.PROPAGATION).metricsListener(listener).solve();
+
+        assertEquals(0, metrics.get(0).getSolutions());
+        assertEquals(0, metrics.get(1).getSolutions());
+        assertTrue(metrics.get(1).getNodes() * 10 < metrics.get(0).getNodes());
+    }
+
+    @Test
+    public void solveHappyCube_Parallel_SameSolutions() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        Set<Configuration> expected = collectSolutions(faces, SolverEngine.BACKTRACKING);
+        Set<Configuration> actual = collectSolutions(faces, SolverEngine.PERMUTATIONS, 4);
+
+        assertEquals(expected, actual);
+
+        CountingCubeVisitor visitor = new CountingCubeVisitor();
+        Solver.happyCube(faces).cubeVisitor(visitor).parallelism(4).uniqueSolutions().solve();
+
+        assertEquals(16, visitor.getResultCount());
+    }
+
+    @Test
+    public void solveHappyCube_IdenticalAndSymmetricFaces() {
+
+        List<Face> faces = identicalFacesPuzzle();
+
+        Set<Long> expected = collectPackedSolutions(Solver.happyCube(faces));
+        assertEquals(9216, expected.size());
+        assertEquals(expected, collectPackedSolutions(Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING)));
+        assertEquals(expected, collectPackedSolutions(Solver.happyCube(faces).parallelism(4)));
+
+        Set<Long> iterated = new HashSet<>();
+        for (Iterator<Solution> iterator = Solver.happyCube(faces).iterator(); iterator.hasNext(); ) {
+            iterated.add(iterator.next().getValue());
+        }
+        assertEquals(expected, iterated);
+
+        // identical faces can be swapped in any solution
+        for (long solution : expected) {
+            int[] placements = new int[CubeSide.values().length];
+            for (CubeSide side : CubeSide.values()) {
+                int faceIndex = Solution.getFaceIndex(solution, side);
+                int swappedIndex = (faceIndex == 2)? 3 : (faceIndex == 3)? 2 : faceIndex;
+                placements[side.ordinal()] = Solution.getPlacement(solution, side) + (swappedIndex - faceIndex) * 8;
+            }
+            assertTrue(expected.contains(Solution.pack(placements)));
+        }
+
+        assertEquals(2304, collectPackedSolutions(
+                Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING).uniqueSolutions()).size());
+
+        SolutionCount count = Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING).count();
+        assertEquals(9216, count.getSolutions());
+        assertEquals(2304, count.getUniqueSolutions());
+        assertEquals(1152, count.getUniqueSolutionsExcludingMirrorImages());
+    }
+
+    @Test
+    public void solveHappyCube_SymmetricSolutions() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        // the first face is always placed on the upper side,
+        // so only the symmetric solutions, that keep it there, can be found
+        Set<Configuration> solutions = collectSolutions(faces, SolverEngine.BACKTRACKING);
+        for (Configuration solution : solutions) {
+            for (Configuration symmetric : Configuration.buildSymmetricConfigurations(solution, true)) {
+                Map<CubeSide, ? extends Side> sides = symmetric.getSides();
+                assertEquals(solutions.contains(symmetric), sides.get(CubeSide.UPPER).getFace() == faces.get(0));
+            }
+        }
+
+        CountingCubeVisitor visitor = new CountingCubeVisitor();
+        Solver.happyCube(faces).cubeVisitor(visitor).engine(SolverEngine.BACKTRACKING).excludeMirrorImages().solve();
+
+        assertEquals(8, visitor.getResultCount());
+    }
+
+    @Test
+    public void solveHappyCube_UniqueSolutions_SymmetricToAllSolutions() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        Set<Configuration> solutions = collectSolutions(Solver.happyCube(faces));
+
+        for (SolverEngine engine : SolverEngine.values()) {
+            Set<Configuration> uniqueSolutions = collectSolutions(Solver.happyCube(faces).engine(engine).uniqueSolutions());
+            assertEquals(16, uniqueSolutions.size());
+            assertEquals(solutions, collectSymmetricSolutions(uniqueSolutions, false, faces.get(0)));
+
+            uniqueSolutions = collectSolutions(Solver.happyCube(faces).engine(engine).excludeMirrorImages());
+            assertEquals(8, uniqueSolutions.size());
+            assertEquals(solutions, collectSymmetricSolutions(uniqueSolutions, true, faces.get(0)));
+        }
+    }
+
+    @Test
+    public void solveHappyCube_SolutionVisitor() {
+
+        final List<Face> faces = Puzzles.goldenFaces();
+
+        Set<Configuration> expected = collectSolutions(faces, SolverEngine.PERMUTATIONS);
+
+        for (SolverEngine engine : SolverEngine.values()) {
+
+            // both visitors receive the same solutions in the same order
+            final List<Configuration> cubes = new ArrayList<>();
+            final List<Configuration> packedSolutions = new ArrayList<>();
+            Solver.happyCube(faces).engine(engine).cubeVisitor(new CubeVisitor() {
+                @Override
+                public void visit(Cube cube) {
+                    cubes.add(Configuration.fromCube(cube));
+                }
+            }).solutionVisitor(new SolutionVisitor() {
+                @Override
+                public void visit(long solution) {
+                    packedSolutions.add(new Solution(faces, solution).toConfiguration());
+                }
+            }).solve();
+
+            assertEquals(cubes, packedSolutions);
+            assertEquals(expected, new HashSet<>(packedSolutions));
+
+            // only packed solutions
+            final Set<Long> solutions = new HashSet<>();
+            Solver.happyCube(faces).engine(engine).solutionVisitor(new SolutionVisitor() {
+                @Override
+                public void visit(long solution) {
+                    solutions.add(solution);
+                }
+            }).solve();
+
+            assertEquals(expected.size(), solutions.size());
+        }
+    }
+
+    @Test
+    public void solveHappyCube_Stream() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        Set<Configuration> expected = collectSolutions(faces, SolverEngine.PERMUTATIONS);
+
+        Set<Configuration> actual = new HashSet<>();
+        try (Stream<Solution> stream = Solver.happyCube(faces).stream()) {
+            Iterator<Solution> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                actual.add(iterator.next().toConfiguration());
+            }
+        }
+        assertEquals(expected, actual);
+
+        assertEquals(16, Solver.happyCube(faces).uniqueSolutions().stream().count());
+        assertEquals(3, Solver.happyCube(faces).stream().limit(3).count());
+        assertTrue(expected.contains(Solver.happyCube(faces).stream().findFirst().get().toConfiguration()));
+    }
+
+    @Test
+    public void solveHappyCube_Iterator() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        Iterator<Solution> iterator = Solver.happyCube(faces).uniqueSolutions().iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            assertTrue(iterator.hasNext());
+            iterator.next();
+            count++;
+        }
+        assertEquals(16, count);
+
+        Stream<Solution> stream = Solver.happyCube(faces).stream();
+        iterator = stream.iterator();
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        stream.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void solveHappyCube_Limits() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        for (SolverEngine engine : SolverEngine.values()) {
+            for (int parallelism : new int[] {1, 4}) {
+
+                CountingCubeVisitor visitor = new CountingCubeVisitor();
+                StopReason stopReason = Solver.happyCube(faces).engine(engine).parallelism(parallelism)
+                        .cubeVisitor(visitor).limit(5).solve();
+                assertEquals(StopReason.LIMIT_REACHED, stopReason);
+                assertEquals(5, visitor.getResultCount());
+
+                visitor = new CountingCubeVisitor();
+                stopReason = Solver.happyCube(faces).engine(engine).parallelism(parallelism)
+                        .cubeVisitor(visitor).firstSolution().solve();
+                assertEquals(StopReason.LIMIT_REACHED, stopReason);
+                assertEquals(1, visitor.getResultCount());
+
+                visitor = new CountingCubeVisitor();
+                stopReason = Solver.happyCube(faces).engine(engine).parallelism(parallelism)
+                        .cubeVisitor(visitor).uniqueSolutions().limit(100).solve();
+                assertEquals(StopReason.COMPLETED, stopReason);
+                assertEquals(16, visitor.getResultCount());
+            }
+
+            CancellationToken cancellationToken = new CancellationToken();
+            cancellationToken.cancel();
+            CountingCubeVisitor visitor = new CountingCubeVisitor();
+            StopReason stopReason = Solver.happyCube(faces).engine(engine)
+                    .cubeVisitor(visitor).cancellationToken(cancellationToken).solve();
+            assertEquals(StopReason.CANCELLED, stopReason);
+            assertEquals(0, visitor.getResultCount());
+        }
+
+        assertEquals(1, Solver.happyCube(faces).firstSolution().stream().count());
+    }
+
+    @Test
+    public void solveHappyCube_Timeout() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        long started = System.nanoTime();
+        CountingCubeVisitor visitor = new CountingCubeVisitor();
+        StopReason stopReason = Solver.happyCube(faces).cubeVisitor(visitor).timeout(Duration.ofMillis(10)).solve();
+
+        assertEquals(StopReason.TIMED_OUT, stopReason);
+        assertTrue(visitor.getResultCount() < 64);
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void solveHappyCube_Metrics() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        for (HappyCube happyCube : Arrays.asList(Solver.happyCube(faces),
+                Solver.happyCube(faces).parallelism(4), Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING),
+                Solver.happyCube(faces).engine(SolverEngine.PROPAGATION))) {
+
+            final List<SearchMetrics> metrics = new ArrayList<>();
+            happyCube.cubeVisitor(new CountingCubeVisitor()).metricsListener(new MetricsListener() {
+                @Override
+                public void onMetrics(SearchMetrics searchMetrics) {
+                    metrics.add(searchMetrics);
+                }
+            }).solve();
+
+            assertEquals(1, metrics.size());
+            SearchMetrics searchMetrics = metrics.get(0);
+            assertEquals(64, searchMetrics.getSolutions());
+            assertEquals(StopReason.COMPLETED, searchMetrics.getStopReason());
+            assertTrue(searchMetrics.getPrunes() > 0);
+            assertTrue(searchMetrics.getNodes() > searchMetrics.getPrunes());
+            assertTrue(searchMetrics.getEdgeChecks() >= searchMetrics.getNodes());
+            assertEquals(searchMetrics.getTotalTime(), searchMetrics.getSearchTime()
+                    .plus(searchMetrics.getFilterTime()).plus(searchMetrics.getVisitTime()));
+        }
+
+        // identical faces are skipped
+        List<Face> identicalFaces = identicalFacesPuzzle();
+
+        final SearchMetrics[] metrics = new SearchMetrics[1];
+        Solver.happyCube(identicalFaces).engine(SolverEngine.BACKTRACKING).limit(10).metricsListener(new MetricsListener() {
+            @Override
+            public void onMetrics(SearchMetrics searchMetrics) {
+                metrics[0] = searchMetrics;
+            }
+        }).solve();
+
+        assertEquals(10, metrics[0].getSolutions());
+        assertEquals(StopReason.LIMIT_REACHED, metrics[0].getStopReason());
+        assertTrue(metrics[0].getDuplicatesRejected() > 0);
+    }
+
+    @Test
+    public void solveHappyCube_Progress() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        for (HappyCube happyCube : Arrays.asList(Solver.happyCube(faces),
+                Solver.happyCube(faces).parallelism(4), Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING),
+                Solver.happyCube(faces).engine(SolverEngine.PROPAGATION))) {
+
+            final List<SearchProgress> reports = new ArrayList<>();
+            happyCube.progressListener(new ProgressListener() {
+                @Override
+                public void onProgress(SearchProgress progress) {
+                    reports.add(progress);
+                }
+            }, Duration.ZERO).solve();
+
+            assertTrue(reports.size() > 2);
+            for (int i = 1; i < reports.size(); i++) {
+                assertTrue(reports.get(i).getCompleted() >= reports.get(i - 1).getCompleted());
+                assertFalse(reports.get(i - 1).isFinished());
+            }
+            SearchProgress last = reports.get(reports.size() - 1);
+            assertTrue(last.isFinished());
+            assertEquals(1, last.getCompleted(), 0);
+            assertEquals(64, last.getSolutions());
+            assertEquals(Duration.ZERO, last.getEstimatedTimeRemaining());
+        }
+
+        final List<SearchProgress> reports = new ArrayList<>();
+        Solver.happyCube(faces).limit(1).progressListener(new ProgressListener() {
+            @Override
+            public void onProgress(SearchProgress progress) {
+                reports.add(progress);
+            }
+        }, Duration.ofHours(1)).solve();
+
+        // the only report is sent, when the search has stopped
+        assertEquals(1, reports.size());
+        assertTrue(reports.get(0).isFinished());
+        assertTrue(reports.get(0).getCompleted() < 1);
+        assertEquals(1, reports.get(0).getSolutions());
+    }
+
+    @Test
+    public void countHappyCube() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        for (SolverEngine engine : SolverEngine.values()) {
+            SolutionCount count = Solver.happyCube(faces).engine(engine).count();
+            assertEquals(64, count.getSolutions());
+            assertEquals(16, count.getUniqueSolutions());
+            assertEquals(8, count.getUniqueSolutionsExcludingMirrorImages());
+            assertEquals(StopReason.COMPLETED, count.getStopReason());
+        }
+
+        SolutionCount count = Solver.happyCube(faces).parallelism(4).count();
+        assertEquals(64, count.getSolutions());
+        assertEquals(16, count.getUniqueSolutions());
+
+        count = Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING).limit(10).count();
+        assertEquals(10, count.getSolutions());
+        assertEquals(StopReason.LIMIT_REACHED, count.getStopReason());
+    }
+
+    @Test
+    public void countHappyCube_SymmetricFaces() {
+
+        // the cube has identical faces, and some of them look the same in several orientations,
+        // but still no solution is symmetric to itself, so each class of symmetric solutions
+        // contains exactly 4 solutions (8 with mirror images)
+        List<Face> faces = identicalFacesPuzzle();
+
+        Set<Configuration> solutions = collectSolutions(faces, SolverEngine.BACKTRACKING);
+        SolutionCount count = Solver.happyCube(faces).count();
+        assertEquals(solutions.size(), count.getSolutions());
+        assertEquals(countOrbits(solutions, false), count.getUniqueSolutions());
+        assertEquals(countOrbits(solutions, true), count.getUniqueSolutionsExcludingMirrorImages());
+    }
+
+    /**
+     * @return Number of classes of symmetric solutions, each class must have 4 solutions (8 with mirror images)
+     */
+    private static long countOrbits(Set<Configuration> solutions, boolean includeMirrorImages) {
+
+        Set<Configuration> visited = new HashSet<>();
+        long orbits = 0;
+        for (Configuration solution : solutions) {
+            if (visited.contains(solution)) {
+                continue;
+            }
+            int orbitSize = 0;
+            for (Configuration symmetric : Configuration.buildSymmetricConfigurations(solution, includeMirrorImages)) {
+                if (solutions.contains(symmetric)) {
+                    visited.add(symmetric);
+                    orbitSize++;
+                }
+            }
+            assertEquals(includeMirrorImages? 8 : 4, orbitSize);
+            orbits++;
+        }
+        return orbits;
+    }
+
+    @Test
+    public void solveHappyCube_WideEdges() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        // stretching each interior point of each edge does not change the set of solutions
+        List<Face> wideFaces = new ArrayList<>(6 + 1);
+        for (Face face : faces) {
+            wideFaces.add(stretch(face, 43));
+        }
+        assertEquals(131, wideFaces.get(0).getEdges().get(0).getSize());
+
+        Set<Long> expected = collectPackedSolutions(Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING));
+        assertEquals(64, expected.size());
+        for (SolverEngine engine : SolverEngine.values()) {
+            assertEquals(expected, collectPackedSolutions(Solver.happyCube(wideFaces).engine(engine)));
+        }
+
+        final Set<Long> poolSolutions = new HashSet<>();
+        Solver.pool(wideFaces).solve(new PoolVisitor() {
+            @Override
+            public void visit(int[] pieces, long solution) {
+                poolSolutions.add(solution);
+            }
+        });
+        assertEquals(expected, poolSolutions);
+    }
+
+    private static Face stretch(Face face, int factor) {
+
+        int edgeSize = face.getEdges().get(0).getSize();
+        int wideEdgeSize = 2 + (edgeSize - 2) * factor;
+        byte[] points = new byte[wideEdgeSize * 4 - 4];
+        int i = 0;
+        for (Edge edge : face.getEdges()) {
+            byte[] edgePoints = edge.getPoints();
+            points[i++] = edgePoints[0];
+            for (int point = 1; point < edgeSize - 1; point++) {
+                for (int k = 0; k < factor; k++) {
+                    points[i++] = edgePoints[point];
+                }
+            }
+        }
+        return new Face(points, wideEdgeSize);
+    }
+
+    @Test
+    public void solvePool() {
+
+        // golden and red sets
+        final List<Face> pieces = new ArrayList<>(12 + 1);
+        pieces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,1,0,1,0,1,0,1}, 5));
+        pieces.add(new Face(new byte[] {0,0,0,1,1,0,1,0,1,1,0,1,0,0,1,0}, 5));
+        pieces.add(new Face(new byte[] {0,0,1,0,1,1,0,0,0,1,0,1,0,1,0,1}, 5));
+        pieces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,0,0,0,1,0,1,0,1}, 5));
+        pieces.add(new Face(new byte[] {0,0,1,0,1,1,0,1,0,0,1,0,1,1,1,0}, 5));
+        pieces.add(new Face(new byte[] {0,1,1,0,1,1,0,1,1,1,0,0,1,1,0,1}, 5));
+        pieces.add(new Face(new byte[] {1,0,1,0,1,1,0,1,0,0,1,0,1,1,0,1}, 5));
+        pieces.add(new Face(new byte[] {0,1,1,0,0,0,1,0,1,1,0,1,1,0,1,0}, 5));
+        pieces.add(new Face(new byte[] {0,0,1,0,0,1,0,1,0,1,0,1,1,0,1,0}, 5));
+        pieces.add(new Face(new byte[] {0,0,1,1,0,1,0,1,0,0,1,0,1,1,0,1}, 5));
+        pieces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,1,1,0,1,0,0,1,0}, 5));
+        pieces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,0,1,0,0,1,0,1}, 5));
+
+        for (final boolean unique : new boolean[] {false, true}) {
+
+            // solutions of each subset, that has any
+            final Map<List<Integer>, Set<Configuration>> actual = new HashMap<>();
+            HappyCubePool pool = Solver.pool(pieces);
+            if (unique) {
+                pool.uniqueSolutions();
+            }
+            pool.solve(new PoolVisitor() {
+                @Override
+                public void visit(int[] subset, long solution) {
+                    List<Integer> indices = new ArrayList<>();
+                    List<Face> faces = new ArrayList<>();
+                    for (int piece : subset) {
+                        indices.add(piece);
+                        faces.add(pieces.get(piece));
+                    }
+                    if (!actual.containsKey(indices)) {
+                        actual.put(indices, new HashSet<Configuration>());
+                    }
+                    actual.get(indices).add(Configuration.fromSolution(solution, faces));
+                }
+            });
+
+            // brute force
+            Map<List<Integer>, Set<Configuration>> expected = new HashMap<>();
+            int count = pieces.size();
+            for (int mask = 0; mask < (1 << count); mask++) {
+                if (Integer.bitCount(mask) != 6) {
+                    continue;
+                }
+                List<Integer> indices = new ArrayList<>();
+                List<Face> faces = new ArrayList<>();
+                for (int piece = 0; piece < count; piece++) {
+                    if ((mask & (1 << piece)) != 0) {
+                        indices.add(piece);
+                        faces.add(pieces.get(piece));
+                    }
+                }
+                HappyCube happyCube = Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING);
+                if (unique) {
+                    happyCube.uniqueSolutions();
+                }
+                Set<Configuration> solutions = collectSolutions(happyCube);
+                if (!solutions.isEmpty()) {
+                    expected.put(indices, solutions);
+                }
+            }
+
+            assertTrue(expected.containsKey(Arrays.asList(0, 2, 4, 6, 8, 10)));
+            assertTrue(expected.containsKey(Arrays.asList(1, 3, 5, 7, 9, 11)));
+            assertEquals(expected, actual);
+        }
+
+        // limits, metrics and progress
+        final int[] visited = new int[1];
+        final List<SearchMetrics> metrics = new ArrayList<>();
+        final List<SearchProgress> reports = new ArrayList<>();
+        StopReason stopReason = Solver.pool(pieces).limit(3).metricsListener(new MetricsListener() {
+            @Override
+            public void onMetrics(SearchMetrics searchMetrics) {
+                metrics.add(searchMetrics);
+            }
+        }).solve(new PoolVisitor() {
+            @Override
+            public void visit(int[] subset, long solution) {
+                visited[0]++;
+            }
+        });
+        assertEquals(StopReason.LIMIT_REACHED, stopReason);
+        assertEquals(3, visited[0]);
+        assertEquals(3, metrics.get(0).getSolutions());
+        assertTrue(metrics.get(0).getNodes() > 0);
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        assertEquals(StopReason.CANCELLED, Solver.pool(pieces).cancellationToken(token).solve(null));
+
+        stopReason = Solver.pool(pieces).progressListener(new ProgressListener() {
+            @Override
+            public void onProgress(SearchProgress progress) {
+                reports.add(progress);
+            }
+        }, Duration.ZERO).solve(null);
+        assertEquals(StopReason.COMPLETED, stopReason);
+        SearchProgress last = reports.get(reports.size() - 1);
+        assertTrue(last.isFinished());
+        assertEquals(1.0, last.getCompleted(), 0);
+        for (int i = 1; i < reports.size(); i++) {
+            assertTrue(reports.get(i).getCompleted() >= reports.get(i - 1).getCompleted());
+        }
+    }
+
+    @Test
+    public void solveBatch() throws Exception {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        List<List<Face>> puzzles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            puzzles.add(faces);
+        }
+        // invalid puzzle
+        puzzles.add(faces.subList(0, 5));
+
+        final int[] counts = new int[puzzles.size()];
+        final List<Integer> failures = new ArrayList<>();
+        Solver.batch(puzzles).engine(SolverEngine.BACKTRACKING).uniqueSolutions().maxInFlight(3).solve(new BatchCallback() {
+            @Override
+            public void onResult(PuzzleResult result) {
+                counts[result.getIndex()] = result.getSolutionCount();
+            }
+
+            @Override
+            public void onFailure(int index, List<Face> faces, Throwable error) {
+                failures.add(index);
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(16, counts[i]);
+        }
+        assertEquals(Collections.singletonList(10), failures);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<Future<PuzzleResult>> futures = Solver.batch(puzzles.subList(0, 10))
+                    .engine(SolverEngine.BACKTRACKING).executor(executor).maxInFlight(2).submit();
+            assertEquals(10, futures.size());
+            for (Future<PuzzleResult> future : futures) {
+                assertEquals(64, future.get().getSolutions().size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return Faces of a small puzzle with three copies of the first face and two copies of the third one,
+     *         some of them look the same in several orientations: 9216 solutions, 2304 unique
+     */
+    private static List<Face> identicalFacesPuzzle() {
+        List<Face> faces = new ArrayList<>(6 + 1);
+        faces.add(new Face(new byte[] {0,1,0,0,1,0,0,1}, 3));
+        faces.add(new Face(new byte[] {0,1,0,1,0,0,1,0}, 3));
+        faces.add(new Face(new byte[] {0,0,1,0,1,1,0,1}, 3));
+        faces.add(new Face(new byte[] {0,0,1,0,1,1,0,1}, 3));
+        faces.add(new Face(new byte[] {0,1,0,0,1,0,0,1}, 3));
+        faces.add(new Face(new byte[] {0,1,0,0,1,0,0,1}, 3));
+        return faces;
+    }
+
+    private static Set<Configuration> collectSolutions(List<Face> faces, SolverEngine engine) {
+        return collectSolutions(faces, engine, 1);
+    }
+
+    private static Set<Configuration> collectSolutions(List<Face> faces, SolverEngine engine, int parallelism) {
+        return collectSolutions(Solver.happyCube(faces).engine(engine).parallelism(parallelism));
+    }
+
+    private static Set<Long> collectPackedSolutions(HappyCube happyCube) {
+
+        final Set<Long> solutions = new HashSet<>();
+        happyCube.solutionVisitor(new SolutionVisitor() {
+            @Override
+            public void visit(long solution) {
+                solutions.add(solution);
+            }
+        }).solve();
+        return solutions;
+    }
+
+    private static Set<Configuration> collectSolutions(HappyCube happyCube) {
+
+        final Set<Configuration> solutions = new HashSet<>();
+        CubeVisitor visitor = new CubeVisitor() {
+            @Override
+            public void visit(Cube cube) {
+                solutions.add(Configuration.fromCube(cube));
+            }
+        };
+        happyCube.cubeVisitor(visitor).solve();
+        return solutions;
+    }
+
+    /**
+     * @return All configurations, that are symmetric to the given ones and have the given face on the upper side
+     */
+    private static Set<Configuration> collectSymmetricSolutions(Set<Configuration> solutions,
+                                                                boolean includeMirrorImages, Face upperFace) {
+        Set<Configuration> symmetricSolutions = new HashSet<>();
+        for (Configuration solution : solutions) {
+            for (Configuration symmetric : Configuration.buildSymmetricConfigurations(solution, includeMirrorImages)) {
+                Map<CubeSide, ? extends Side> sides = symmetric.getSides();
+                if (sides.get(CubeSide.UPPER).getFace() == upperFace) {
+                    symmetricSolutions.add(symmetric);
+                }
+            }
+        }
+        return symmetricSolutions;
+    }
 }
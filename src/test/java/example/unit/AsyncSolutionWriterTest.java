@@ -0,0 +1,81 @@
+package example.unit;
+
+import example.AsyncSolutionWriter;
+import example.AsyncSolutionWriter.OverflowPolicy;
+import example.ConfigurationWriter;
+import example.Face;
+import example.Puzzles;
+import example.SolutionVisitor;
+import example.Solver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class AsyncSolutionWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void write_SameAsSynchronous() throws Exception {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        File expected = folder.newFile();
+        try (final ConfigurationWriter writer = ConfigurationWriter.fileWriter(expected)) {
+            writer.writeFaces(faces);
+            final List<Face> solutionFaces = faces;
+            Solver.happyCube(faces).solutionVisitor(new SolutionVisitor() {
+                @Override
+                public void visit(long solution) {
+                    writer.writeSolution(solution, solutionFaces);
+                }
+            }).solve();
+        }
+
+        File actual = folder.newFile();
+        ConfigurationWriter configurationWriter = ConfigurationWriter.fileWriter(actual);
+        configurationWriter.writeFaces(faces);
+        // tiny buffer, so that the solver has to wait for the writer thread
+        try (AsyncSolutionWriter writer = AsyncSolutionWriter.start(configurationWriter, faces, 2, OverflowPolicy.BLOCK)) {
+            Solver.happyCube(faces).solutionVisitor(writer).solve();
+            assertEquals(64, writer.getSolutionCount());
+        }
+
+        assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void write_BufferFull_Fail() throws Exception {
+
+        List<Face> faces = Puzzles.goldenFaces();
+        try (AsyncSolutionWriter writer = AsyncSolutionWriter.start(
+                ConfigurationWriter.fileWriter(folder.newFile()), faces, 1, OverflowPolicy.FAIL)) {
+            // drawing a solution takes much longer than putting it into the buffer
+            for (int i = 0; i < 1_000_000; i++) {
+                writer.visit(0L);
+            }
+        }
+        fail("Buffer has never been full");
+    }
+
+    @Test(expected = IOException.class)
+    public void write_WriterFailed() throws Exception {
+
+        List<Face> faces = Puzzles.goldenFaces();
+        try (AsyncSolutionWriter writer = AsyncSolutionWriter.start(
+                ConfigurationWriter.fileWriter(folder.newFile()), faces)) {
+            // all sides are occupied by a face, that does not exist
+            writer.visit(-1L);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package example.unit;
+
+import example.CompatibilityTable;
+import example.Configuration;
+import example.Cube;
+import example.CubeSide;
+import example.CubeVisitor;
+import example.Face;
+import example.Orientation;
+import example.Side;
+import example.Solver;
+import example.SolverEngine;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompatibilityTableTest {
+
+    @Test
+    public void isConnected_SameAsCube() {
+
+        List<Face> faces = new ArrayList<>(6 + 1);
+        faces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,1,0,1,0,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,1,1,0,0,0,1,0,1,0,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,1,1,0,1,0,0,1,0,1,1,1,0}, 5));
+        faces.add(new Face(new byte[] {1,0,1,0,1,1,0,1,0,0,1,0,1,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,0,1,0,0,1,0,1,0,1,0,1,1,0,1,0}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,1,1,0,1,0,0,1,0}, 5));
+
+        final List<Configuration> solutions = new ArrayList<>();
+        Solver.happyCube(faces).engine(SolverEngine.BACKTRACKING).cubeVisitor(new CubeVisitor() {
+            @Override
+            public void visit(Cube cube) {
+                solutions.add(Configuration.fromCube(cube));
+            }
+        }).solve();
+
+        // put the faces in the same sides as in some solution
+        Cube cube = new Cube();
+        for (Map.Entry<CubeSide, ? extends Side> side : solutions.get(0).getSides().entrySet()) {
+            cube.setFace(side.getKey(), side.getValue().getFace());
+        }
+
+        final CompatibilityTable table = CompatibilityTable.build(faces);
+        final int[] counts = new int[] {0, 0};
+        cube.visitRotations(new CubeVisitor() {
+            @Override
+            public void visit(Cube cube) {
+                int[] placements = new int[CubeSide.values().length];
+                for (CubeSide cubeSide : CubeSide.values()) {
+                    Side side = cube.getSides().get(cubeSide);
+                    placements[cubeSide.ordinal()] = CompatibilityTable.placement(table.indexOf(side.getFace()),
+                            Orientation.of(side.getRotationFactor(), side.isFlipped()));
+                }
+                boolean connected = cube.isConnected();
+                assertEquals(connected, table.isConnected(placements));
+                counts[connected? 0 : 1]++;
+            }
+        });
+
+        assertTrue(counts[0] > 0);
+        assertTrue(counts[1] > 0);
+    }
+
+    @Test
+    public void canConnect_Symmetric() {
+
+        List<Face> faces = new ArrayList<>(2 + 1);
+        faces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,1,0,1,0,1,0,1}, 5));
+        faces.add(new Face(new byte[] {0,1,0,1,0,0,1,0,1,1,0,1,0,0,1,0}, 5));
+
+        CompatibilityTable table = CompatibilityTable.build(faces);
+        int count = table.getPlacementCount();
+        int connected = 0;
+        for (int p1 = 0; p1 < count; p1++) {
+            for (int p2 = 0; p2 < count; p2++) {
+                boolean canConnect = table.canConnect(CubeSide.UPPER, p1, CubeSide.NORTHERN, p2);
+                assertEquals(canConnect, table.canConnect(CubeSide.NORTHERN, p2, CubeSide.UPPER, p1));
+                assertEquals(canConnect, (table.getCandidates(CubeSide.UPPER, p1, CubeSide.NORTHERN, 0) & (1L << p2)) != 0);
+                if (canConnect) {
+                    connected++;
+                }
+            }
+        }
+        assertTrue(connected > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void canConnect_NotAdjacent() {
+
+        List<Face> faces = new ArrayList<>(1 + 1);
+        faces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,1,0,1,0,1,0,1}, 5));
+
+        assertFalse(CompatibilityTable.build(faces).canConnect(CubeSide.UPPER, 0, CubeSide.BOTTOM, 0));
+    }
+}
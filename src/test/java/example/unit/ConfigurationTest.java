@@ -44,12 +44,31 @@ public class ConfigurationTest {
         Set<Configuration> symmetricConfigurations =
                 Configuration.buildSymmetricConfigurations(Configuration.fromCube(cube));
 
-        assertEquals(4, symmetricConfigurations.size());
+        assertEquals(24, symmetricConfigurations.size());
 
         symmetricConfigurations.addAll(
                 Configuration.buildSymmetricConfigurations(Configuration.fromCube(cube))
         );
 
-        assertEquals(4, symmetricConfigurations.size());
+        assertEquals(24, symmetricConfigurations.size());
+    }
+
+    @Test
+    public void buildSymmetricConfigurations_MirrorImages_AllDistinct() {
+
+        Cube cube = new Cube();
+        cube.setFace(CubeSide.UPPER, new Face(new byte[]{1, 1, 0, 1, 1, 0, 1, 0, 1, 1, 0, 1, 1, 0, 1, 0}, 5));
+        cube.setFace(CubeSide.BOTTOM, new Face(new byte[]{1, 1, 0, 1, 1, 0, 1, 0, 1, 1, 0, 1, 1, 0, 1, 0}, 5));
+        cube.setFace(CubeSide.WESTERN, new Face(new byte[]{0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0}, 5));
+        cube.setFace(CubeSide.EASTERN, new Face(new byte[]{0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0}, 5));
+        cube.setFace(CubeSide.NORTHERN, new Face(new byte[]{0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1}, 5));
+        cube.setFace(CubeSide.SOUTHERN, new Face(new byte[]{0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1}, 5));
+
+        Set<Configuration> symmetricConfigurations =
+                Configuration.buildSymmetricConfigurations(Configuration.fromCube(cube), true);
+
+        assertEquals(48, symmetricConfigurations.size());
+        assertTrue(symmetricConfigurations.containsAll(
+                Configuration.buildSymmetricConfigurations(Configuration.fromCube(cube))));
     }
 }
@@ -6,9 +6,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Collection;
+import java.util.List;
 
 import static example.unit.matchers.Matchers.hasEdges;
 import static example.unit.matchers.Matchers.hasEdgesReversed;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 public class FaceTest {
@@ -45,6 +48,42 @@ public class FaceTest {
         assertThat(edges2, hasEdgesReversed(expectedEdges2));
     }
 
+    @Test
+    public void getPlugWords_ShortEdges() {
+        List<Edge> edges = face2.getEdges();
+        // {0, 1, 0, 1, 0}
+        assertArrayEquals(new long[] {0b01010L}, edges.get(0).getPlugWords());
+        assertArrayEquals(new long[] {0b01010L}, edges.get(0).getPlugWordsReverse());
+        // {0, 0, 1, 0, 1}
+        assertArrayEquals(new long[] {0b10100L}, edges.get(2).getPlugWords());
+        assertArrayEquals(new long[] {0b00101L}, edges.get(2).getPlugWordsReverse());
+        // {1, 1, 0, 1, 0}
+        assertArrayEquals(new long[] {0b01011L}, edges.get(3).getPlugWords());
+        assertArrayEquals(new long[] {0b11010L}, edges.get(3).getPlugWordsReverse());
+    }
+
+    @Test
+    public void getPlugWords() {
+        int edgeSize = 130;
+        byte[] points = new byte[edgeSize * 4 - 4];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = (byte) ((i % 3 == 0 || i % 7 == 0)? 1 : 0);
+        }
+
+        for (Edge edge : new Face(points, edgeSize).getEdges()) {
+            assertPlugWords(edge.getPoints(), edge.getPlugWords());
+            assertPlugWords(edge.getPointsReverse(), edge.getPlugWordsReverse());
+        }
+    }
+
+    private static void assertPlugWords(byte[] points, long[] words) {
+        assertEquals((points.length + Long.SIZE - 1) / Long.SIZE, words.length);
+        for (int i = 0; i < words.length * Long.SIZE; i++) {
+            long bit = (words[i / Long.SIZE] >>> (i % Long.SIZE)) & 1L;
+            assertEquals(i < points.length? points[i] : 0, bit);
+        }
+    }
+
     @Test(expected = Exception.class)
     public void incorrectEdge_AllSockets() {
         new Face(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, 5);
@@ -0,0 +1,116 @@
+package example.unit;
+
+import example.BatchMain;
+import example.Edge;
+import example.Face;
+import example.PuzzleFileReader;
+import example.PuzzleFileWriter;
+import example.Puzzles;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PuzzleFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void write_Read() throws Exception {
+
+        List<Face> faces = Puzzles.goldenFaces();
+        List<Face> smallFaces = new ArrayList<>(2 + 1);
+        smallFaces.add(new Face(new byte[] {0,1,0,1,1,0,1,0}, 3));
+        smallFaces.add(new Face(new byte[] {1,0,1,0,0,1,0,1}, 3));
+
+        File file = folder.newFile();
+        try (PuzzleFileWriter writer = PuzzleFileWriter.create(file)) {
+            writer.writePuzzle(faces);
+            writer.writePuzzle(smallFaces);
+            writer.writePuzzle(faces.subList(1, 2));
+        }
+
+        try (PuzzleFileReader reader = PuzzleFileReader.open(file)) {
+            // each iterator starts from the beginning
+            for (int pass = 0; pass < 2; pass++) {
+                Iterator<List<Face>> puzzles = reader.iterator();
+                assertFaces(faces, puzzles.next());
+                assertFaces(smallFaces, puzzles.next());
+                assertFaces(faces.subList(1, 2), puzzles.next());
+                assertFalse(puzzles.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void read_CommentsAndEmptyLines() throws Exception {
+
+        File file = folder.newFile();
+        Files.write(file.toPath(), ("# first\r\n\r\n01011010\r\n10100101\r\n\r\n\r\n# second\n01011010").getBytes(StandardCharsets.US_ASCII));
+
+        try (PuzzleFileReader reader = PuzzleFileReader.open(file)) {
+            Iterator<List<Face>> puzzles = reader.iterator();
+            assertTrue(puzzles.hasNext());
+            assertEquals(2, puzzles.next().size());
+            assertEquals(1, puzzles.next().size());
+            assertFalse(puzzles.hasNext());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_InvalidFace() throws Exception {
+
+        File file = folder.newFile();
+        Files.write(file.toPath(), "01011010\n0101x010\n".getBytes(StandardCharsets.US_ASCII));
+
+        try (PuzzleFileReader reader = PuzzleFileReader.open(file)) {
+            reader.iterator().next();
+        }
+    }
+
+    @Test
+    public void solveFile() throws Exception {
+
+        File file = folder.newFile();
+        try (PuzzleFileWriter writer = PuzzleFileWriter.create(file)) {
+            for (int i = 0; i < 5; i++) {
+                writer.writePuzzle(Puzzles.goldenFaces());
+            }
+        }
+
+        File directory = new File(folder.getRoot(), "results"), combined = new File(folder.getRoot(), "results.txt");
+        BatchMain.main(new String[] {"--unique", "--threads=2", file.getAbsolutePath(), directory.getAbsolutePath()});
+        BatchMain.main(new String[] {"--unique", "--combined", file.getAbsolutePath(), combined.getAbsolutePath()});
+
+        byte[] expected = Files.readAllBytes(new File(directory, "puzzle-0.txt").toPath());
+        for (int i = 1; i < 5; i++) {
+            assertArrayEquals(expected, Files.readAllBytes(new File(directory, "puzzle-" + i + ".txt").toPath()));
+        }
+        String results = new String(Files.readAllBytes(combined.toPath()), StandardCharsets.US_ASCII);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(results.contains("Puzzle #" + i));
+        }
+    }
+
+    private static void assertFaces(List<Face> expected, List<Face> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            List<Edge> expectedEdges = expected.get(i).getEdges(), actualEdges = actual.get(i).getEdges();
+            for (int edge = 0; edge < 4; edge++) {
+                assertArrayEquals(expectedEdges.get(edge).getPoints(), actualEdges.get(edge).getPoints());
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package example.unit;
+
+import example.Face;
+import example.HappyCube;
+import example.PuzzleFingerprint;
+import example.Puzzles;
+import example.SolutionCache;
+import example.SolutionVisitor;
+import example.Solver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SolutionCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Same puzzle with faces in reverse order, each one rotated and some of them flipped
+     */
+    private static List<Face> transform(List<Face> faces) {
+
+        List<Face> transformed = new ArrayList<>(faces.size() + 1);
+        for (int i = faces.size() - 1; i >= 0; i--) {
+            transformed.add(transform(faces.get(i), i % 4, i % 2 == 0));
+        }
+        return transformed;
+    }
+
+    private static Face transform(Face face, int rotationFactor, boolean flipped) {
+
+        int edgeSize = face.getEdges().get(0).getSize(), pointCount = 4 * edgeSize - 4;
+        byte[] points = new byte[pointCount];
+        int k = 0;
+        for (int edge = 0; edge < 4; edge++) {
+            byte[] edgePoints = face.getEdges().get(edge).getPoints();
+            for (int i = 0; i < edgeSize - 1; i++) {
+                points[k++] = edgePoints[i];
+            }
+        }
+
+        byte[] transformed = new byte[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            int point = (i + rotationFactor * (edgeSize - 1)) % pointCount;
+            transformed[i] = points[flipped? (pointCount - point) % pointCount : point];
+        }
+        return new Face(transformed, edgeSize);
+    }
+
+    @Test
+    public void fingerprint() {
+
+        List<Face> faces = Puzzles.goldenFaces();
+        assertEquals(PuzzleFingerprint.of(faces), PuzzleFingerprint.of(transform(faces)));
+        assertEquals(PuzzleFingerprint.of(faces).getDigest(), PuzzleFingerprint.of(transform(faces)).getDigest());
+
+        List<Face> otherFaces = new ArrayList<>(faces);
+        otherFaces.set(0, faces.get(1));
+        assertNotEquals(PuzzleFingerprint.of(faces), PuzzleFingerprint.of(otherFaces));
+    }
+
+    @Test
+    public void getSolutions() {
+
+        SolutionCache cache = SolutionCache.inMemory(1);
+        List<Face> faces = Puzzles.goldenFaces(), transformedFaces = transform(faces);
+
+        assertEquals(collectSolutions(faces, false), toSet(cache.getSolutions(faces)));
+        assertEquals(collectSolutions(transformedFaces, false), toSet(cache.getSolutions(transformedFaces)));
+        assertEquals(collectSolutions(transformedFaces, true), toSet(cache.getUniqueSolutions(transformedFaces)));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // another puzzle (with the same face given twice) evicts the first one
+        List<Face> otherFaces = new ArrayList<>(faces);
+        otherFaces.set(0, faces.get(1));
+        assertEquals(collectSolutions(otherFaces, false), toSet(cache.getSolutions(otherFaces)));
+        cache.getSolutions(faces);
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void getSolutions_FromDirectory() throws Exception {
+
+        File directory = folder.newFolder();
+        List<Face> faces = Puzzles.goldenFaces(), transformedFaces = transform(faces);
+
+        SolutionCache.withDirectory(1, directory).getSolutions(faces);
+        assertEquals(1, directory.listFiles().length);
+
+        SolutionCache cache = SolutionCache.withDirectory(1, directory);
+        assertEquals(collectSolutions(transformedFaces, false), toSet(cache.getSolutions(transformedFaces)));
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    private static Set<Long> collectSolutions(List<Face> faces, boolean unique) {
+
+        final Set<Long> solutions = new HashSet<>();
+        HappyCube happyCube = Solver.happyCube(faces).solutionVisitor(new SolutionVisitor() {
+            @Override
+            public void visit(long solution) {
+                solutions.add(solution);
+            }
+        });
+        if (unique) {
+            happyCube.uniqueSolutions();
+        }
+        happyCube.solve();
+        return solutions;
+    }
+
+    private static Set<Long> toSet(long[] solutions) {
+        Set<Long> set = new HashSet<>();
+        for (long solution : solutions) {
+            set.add(solution);
+        }
+        return set;
+    }
+}
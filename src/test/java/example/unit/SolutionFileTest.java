@@ -0,0 +1,114 @@
+package example.unit;
+
+import example.ConfigurationWriter;
+import example.Edge;
+import example.Face;
+import example.Puzzles;
+import example.Solution;
+import example.SolutionFileReader;
+import example.SolutionFileWriter;
+import example.SolutionVisitor;
+import example.Solver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SolutionFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void write_Read() throws Exception {
+
+        List<Face> faces = Puzzles.goldenFaces();
+
+        final List<Long> solutions = new ArrayList<>();
+        File file = folder.newFile();
+        // small mapping, that holds 5 solutions, so that the file is re-mapped many times
+        try (final SolutionFileWriter writer = SolutionFileWriter.create(file, faces, 40)) {
+            Solver.happyCube(faces).solutionVisitor(new SolutionVisitor() {
+                @Override
+                public void visit(long solution) {
+                    solutions.add(solution);
+                    writer.visit(solution);
+                }
+            }).solve();
+            assertEquals(solutions.size(), writer.getSolutionCount());
+        }
+        assertEquals(64, solutions.size());
+
+        try (SolutionFileReader reader = SolutionFileReader.open(file)) {
+
+            assertEquals(solutions.size(), reader.getSolutionCount());
+            assertEquals(faces.size(), reader.getFaces().size());
+            for (int i = 0; i < faces.size(); i++) {
+                List<Edge> expectedEdges = faces.get(i).getEdges(), actualEdges = reader.getFaces().get(i).getEdges();
+                for (int edge = 0; edge < 4; edge++) {
+                    assertArrayEquals(expectedEdges.get(edge).getPoints(), actualEdges.get(edge).getPoints());
+                }
+            }
+
+            // random access
+            for (int i = solutions.size() - 1; i >= 0; i -= 3) {
+                assertEquals((long) solutions.get(i), reader.getPackedSolution(i));
+            }
+
+            File expected = folder.newFile(), actual = folder.newFile();
+            try (ConfigurationWriter expectedWriter = ConfigurationWriter.fileWriter(expected);
+                 ConfigurationWriter actualWriter = ConfigurationWriter.fileWriter(actual)) {
+                for (int i = 0; i < solutions.size(); i++) {
+                    expectedWriter.writeConfiguration(new Solution(faces, solutions.get(i)).toConfiguration());
+                    reader.writeSolution(i, actualWriter);
+                }
+            }
+            assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void read_InvalidIndex() throws Exception {
+
+        List<Face> faces = Puzzles.goldenFaces().subList(0, 1);
+
+        File file = folder.newFile();
+        try (SolutionFileWriter writer = SolutionFileWriter.create(file, faces)) {
+            writer.visit(1L);
+        }
+        try (SolutionFileReader reader = SolutionFileReader.open(file)) {
+            assertEquals(1L, reader.getPackedSolution(0));
+            reader.getPackedSolution(1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_NotSolutionFile() throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), new byte[64]);
+        SolutionFileReader.open(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_NegativeSolutionCount() throws Exception {
+
+        File file = folder.newFile();
+        try (SolutionFileWriter writer = SolutionFileWriter.create(file, Puzzles.goldenFaces())) {
+            writer.visit(1L);
+        }
+        // solution count is a long at offset 8
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(8);
+            raf.writeLong(-1);
+        }
+        SolutionFileReader.open(file);
+    }
+}
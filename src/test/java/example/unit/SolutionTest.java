@@ -0,0 +1,47 @@
+package example.unit;
+
+import example.CompatibilityTable;
+import example.CubeSide;
+import example.Face;
+import example.Orientation;
+import example.Solution;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SolutionTest {
+
+    @Test
+    public void pack_Unpack() {
+
+        int[] placements = new int[CubeSide.values().length];
+        for (CubeSide side : CubeSide.values()) {
+            placements[side.ordinal()] = CompatibilityTable.placement(Solution.MAX_FACES - 1 - side.ordinal(),
+                    Orientation.of(side.ordinal() % 4, side.ordinal() % 2 == 1));
+        }
+
+        long solution = Solution.pack(placements);
+        for (CubeSide side : CubeSide.values()) {
+            assertEquals(placements[side.ordinal()], Solution.getPlacement(solution, side));
+            assertEquals(Solution.MAX_FACES - 1 - side.ordinal(), Solution.getFaceIndex(solution, side));
+            assertEquals(side.ordinal() % 4, Solution.getRotationFactor(solution, side));
+            assertEquals(side.ordinal() % 2 == 1, Solution.isFlipped(solution, side));
+        }
+    }
+
+    @Test
+    public void equals() {
+
+        List<Face> faces = new ArrayList<>(1 + 1);
+        faces.add(new Face(new byte[] {0,0,1,0,0,0,1,0,0,1,0,1,0,1,0,1}, 5));
+
+        Solution s1 = new Solution(faces, 1L << 40), s2 = new Solution(faces, 1L << 40), s3 = new Solution(faces, 1L);
+        assertEquals(s1, s2);
+        assertEquals(s1.hashCode(), s2.hashCode());
+        assertFalse(s1.equals(s3));
+    }
+}